@@ -0,0 +1,184 @@
+package UI;
+
+import UI.displayCanvases.PathCanvas;
+import UI.displayCanvases.RobotCanvas;
+import recording.Recordings;
+import recording.Sample;
+import recording.TrajectorySource;
+import robot.Robot;
+import utilities.Utils;
+
+import java.io.IOException;
+
+/**
+ * Plays a recorded run back on the canvases without simulating anything.  Every recorded sample is
+ * added to the robot path exactly as it was captured, the robot itself is only drawn at the last
+ * sample of each frame so fast playback doesn't redraw the robot thousands of times a frame.
+ * <p/>
+ * Created by CyberPuck on 2026-10-17.
+ */
+public class ReplayEngine {
+    private TrajectorySource source;
+    private RobotCanvas robotCanvas;
+    private PathCanvas pathCanvas;
+    // robot the samples are copied in to for drawing
+    private Robot robot;
+    private Sample sample = new Sample();
+    // scratch sample for searching, so the last sample shown isn't overwritten
+    private Sample search = new Sample();
+    // number of samples shown so far, the cursor in to the source
+    private long shown;
+    // path points that were there before the replay started
+    private long pathBase;
+    // recorded time the replay has reached, in seconds
+    private double playTime;
+    private double startTime;
+    private double endTime;
+    // recorded seconds played per real second
+    private double speed = 1.0;
+    private boolean paused = false;
+
+    /**
+     * Sets up a replay and clears the robot path, nothing is drawn until the first advance or seek.
+     *
+     * @param source      recording to play
+     * @param robotCanvas canvas to draw the robot on
+     * @param pathCanvas  canvas to draw the path on
+     * @param wheelRadius radius of the robot wheels in feet
+     * @throws IOException if the recording can't be read
+     */
+    public ReplayEngine(TrajectorySource source, RobotCanvas robotCanvas, PathCanvas pathCanvas, double wheelRadius) throws IOException {
+        this.source = source;
+        this.robotCanvas = robotCanvas;
+        this.pathCanvas = pathCanvas;
+        this.robot = new Robot(wheelRadius);
+        if (source.size() > 0) {
+            endTime = source.read(source.size() - 1, sample).getTime();
+            source.read(0, sample).copyTo(robot);
+            startTime = sample.getTime();
+            // start the path at the first sample, not wherever the last run left it
+            pathCanvas.setStartingLocation(Utils.convertLocationToPixels(robot.getLocation()));
+        }
+        playTime = startTime;
+        pathCanvas.restartCanvas();
+        pathCanvas.setInput(null);
+        pathCanvas.truncateRobotPath(0);
+        pathBase = pathCanvas.getRobotPathSize();
+    }
+
+    /**
+     * Moves the replay forward by the real time that passed, scaled by the speed.
+     *
+     * @param elapsed real time since the last frame in seconds
+     * @throws IOException if the recording can't be read
+     */
+    public void advance(double elapsed) throws IOException {
+        if (!paused && !isFinished()) {
+            playTime = Math.min(endTime, playTime + elapsed * speed);
+            showUntil(playTime);
+        }
+    }
+
+    /**
+     * Jumps to any point of the recording, backwards or forwards.
+     *
+     * @param time recorded time in seconds, clamped to the recording
+     * @throws IOException if the recording can't be read
+     */
+    public void seek(double time) throws IOException {
+        playTime = Math.max(startTime, Math.min(endTime, time));
+        showUntil(playTime);
+    }
+
+    /**
+     * Draws the samples up to a time.  Going forwards the new samples are appended to the path, going
+     * backwards the path is cut back to the target.
+     */
+    private void showUntil(double time) throws IOException {
+        // always show at least the first sample
+        long target = Math.max(Math.min(1, source.size()), Recordings.countUntil(source, time, search));
+        if (target == shown) {
+            return;
+        }
+        if (target < shown) {
+            // drop the target sample too, redrawing the robot adds it back
+            pathCanvas.truncateRobotPath(pathBase + target - 1);
+            shown = target - 1;
+        }
+        // the path only needs the points in between, the robot is drawn once at the end
+        for (; shown < target - 1; shown++) {
+            source.read(shown, sample).copyTo(robot);
+            pathCanvas.updateRobotPath(Utils.convertLocationToPixels(robot.getLocation()));
+        }
+        source.read(shown, sample).copyTo(robot);
+        robotCanvas.redrawRobot(robot);
+        shown++;
+    }
+
+    /**
+     * Robot at the last sample shown.
+     *
+     * @return robot to read the state from
+     */
+    public Robot getRobot() {
+        return robot;
+    }
+
+    /**
+     * Last sample shown, has the recorded wheel rates.
+     *
+     * @return sample
+     */
+    public Sample getSample() {
+        return sample;
+    }
+
+    public TrajectorySource getSource() {
+        return source;
+    }
+
+    public double getPlayTime() {
+        return playTime;
+    }
+
+    public double getStartTime() {
+        return startTime;
+    }
+
+    public double getEndTime() {
+        return endTime;
+    }
+
+    public double getSpeed() {
+        return speed;
+    }
+
+    /**
+     * Sets how fast the recording plays, 2.0 plays twice as fast as it was recorded.
+     *
+     * @param speed recorded seconds per real second, must be positive
+     */
+    public void setSpeed(double speed) {
+        if (!(speed > 0)) {
+            throw new IllegalArgumentException("Replay speed must be positive: " + speed);
+        }
+        this.speed = speed;
+    }
+
+    public boolean isPaused() {
+        return paused;
+    }
+
+    public void setPaused(boolean paused) {
+        this.paused = paused;
+    }
+
+    /**
+     * Flag indicating the last sample has been shown.
+     *
+     * @return replay finished?
+     */
+    public boolean isFinished() {
+        return shown == source.size();
+    }
+}
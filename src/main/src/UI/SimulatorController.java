@@ -14,15 +14,22 @@ import javafx.scene.control.Button;
 import javafx.scene.control.Label;
 import javafx.scene.control.TabPane;
 import javafx.scene.control.TextArea;
+import javafx.scene.input.KeyCode;
 import javafx.scene.input.KeyEvent;
 import javafx.scene.input.MouseEvent;
 import javafx.scene.layout.Pane;
+import javafx.stage.FileChooser;
+import recording.Recordings;
 import robot.Robot;
+import simulator.RobotSnapshot;
+import simulator.SimulationLoop;
 import simulator.Simulator;
 import utilities.Point;
 import utilities.Position;
 import utilities.Utils;
 
+import java.io.File;
+import java.io.IOException;
 import java.math.RoundingMode;
 import java.net.URL;
 import java.text.DecimalFormat;
@@ -35,6 +42,9 @@ import java.util.ResourceBundle;
  */
 public class SimulatorController implements Initializable {
     private static double WHEEL_RADIUS = 0.5;
+    // seconds of recorded time skipped by the arrow keys during a replay
+    private static double REPLAY_SEEK_STEP = 5.0;
+    private static double MAX_REPLAY_SPEED = 1024.0;
 
     // parent node, need this for detecting mouse and keyboard actions
     @FXML
@@ -63,6 +73,9 @@ public class SimulatorController implements Initializable {
     // Reset the veiw
     @FXML
     private Button resetButton;
+    // Play back a recorded run
+    @FXML
+    private Button replayButton;
 
     // Canvas to draw the robot
     @FXML
@@ -81,6 +94,8 @@ public class SimulatorController implements Initializable {
     private TabController tabController;
     // animation timer to draw a moving robot and path
     private AnimationTimer timer;
+    // runs the simulator on its own thread, the timer only draws its snapshots
+    private SimulationLoop simulationLoop;
     // Location of the robot in the global reference frame
     private Position robotPosition;
     // flag indicating if the simulator is running
@@ -89,6 +104,8 @@ public class SimulatorController implements Initializable {
     private RobotInput input;
     // used for the timer, display this at the end of every simulation
     private long startTime;
+    // recorded run being played back, null if there isn't one
+    private ReplayEngine replay;
 
     @Override
     public void initialize(URL location, ResourceBundle resources) {
@@ -120,6 +137,7 @@ public class SimulatorController implements Initializable {
                 if (simulatorRunning) {
                     stopSimulator();
                 }
+                stopReplay();
                 // move the robot
                 displayController.getPathCanvas().restartCanvas();
                 // update the robot to origin
@@ -133,6 +151,19 @@ public class SimulatorController implements Initializable {
             }
         });
 
+        // setup the replay button
+        replayButton.setOnMouseClicked(new EventHandler<MouseEvent>() {
+            @Override
+            public void handle(MouseEvent event) {
+                FileChooser chooser = new FileChooser();
+                chooser.setTitle("Open Recording");
+                File file = chooser.showOpenDialog(mainPane.getScene().getWindow());
+                if (file != null) {
+                    startReplay(file);
+                }
+            }
+        });
+
         // setup the main pane to handle input
         mainPane.setOnMouseClicked(new EventHandler<MouseEvent>() {
             @Override
@@ -146,6 +177,9 @@ public class SimulatorController implements Initializable {
         mainPane.setOnKeyPressed(new EventHandler<KeyEvent>() {
             @Override
             public void handle(KeyEvent event) {
+                if (replay != null) {
+                    handleReplayKey(event.getCode());
+                }
                 if (simulatorRunning && (input.getMode() == InputMode.CONTROL_WHEELS || input.getMode() == InputMode.CONTROL_GENERAL)) {
                     stopSimulator();
                 }
@@ -157,6 +191,7 @@ public class SimulatorController implements Initializable {
      * Starts the simulation based on the input from the UI.
      */
     public void startSimulator(final RobotInput input) {
+        stopReplay();
         this.input = input;
         // setup the robot object
         final Robot robot = new Robot(WHEEL_RADIUS);
@@ -171,7 +206,6 @@ public class SimulatorController implements Initializable {
             // setup variables now that we can actually start the simulation
             startTime = System.currentTimeMillis();
             simulatorRunning = true;
-            previousTime = 0;
             // clear the robot path
             displayController.getPathCanvas().restartCanvas();
             // draw the input path
@@ -184,39 +218,48 @@ public class SimulatorController implements Initializable {
             if (input.getMode() == InputMode.CONTROL_WHEELS) {
                 updateWheeledState((WheelInput) input);
             }
+            // the simulator belongs to the simulation thread from here on, only draw copies of its robot
+            final Robot displayRobot = new Robot(WHEEL_RADIUS);
+            final Robot previousRobot = new Robot(WHEEL_RADIUS);
+            simulationLoop = new SimulationLoop(sim);
             // startup the animation timer
             timer = new AnimationTimer() {
+                // last snapshot shown in the labels
+                private long shownSequence = -1;
+
                 @Override
                 public void handle(long now) {
                     // make sure to only update when the simulator is running
                     if (simulatorRunning) {
-                        // Calculate the delta between this frame and the last
-                        double deltaTime = 0;
-                        if (previousTime != 0) {
-                            deltaTime = now - previousTime;
-                            // convert to seconds
-                            deltaTime = deltaTime / 1000000000.0;
+                        RobotSnapshot snapshot = simulationLoop.getLatest();
+                        snapshot.copyTo(displayRobot);
+                        if (snapshot.getSequence() != shownSequence) {
+                            shownSequence = snapshot.getSequence();
+                            // update the reference position
+                            robotPosition = new Position(displayRobot.getLocation(), displayRobot.getAngle());
+                            // update the robot data
+                            updateSystemState(displayRobot);
+                            // check if the wheel rotation is static
+                            if (input.getMode() == InputMode.CONTROL_WHEELS) {
+                                updateWheeledState((WheelInput) input);
+                            }
                         }
-                        previousTime = now;
-                        // update the robot position
-                        sim.calculateNewPosition(deltaTime);
-                        // update the reference position
-                        robotPosition = new Position(sim.getRobot().getLocation(), robot.getAngle());
-                        // update the robot data
-                        updateSystemState(sim.getRobot());
-                        // check if the wheel rotation is static
-                        if (input.getMode() == InputMode.CONTROL_WHEELS) {
-                            updateWheeledState((WheelInput) input);
+                        // draw between the last two physics steps, the last step exactly once it's done
+                        if (snapshot.getPrevious() == null || snapshot.isAtGoal()) {
+                            displayController.getRobotCanvas().redrawRobot(displayRobot);
+                        } else {
+                            snapshot.getPrevious().copyTo(previousRobot);
+                            displayController.getRobotCanvas().redrawRobot(previousRobot, displayRobot,
+                                    snapshot.getAlpha(System.nanoTime()));
                         }
-                        // update the position based on the global reference frame
-                        displayController.getRobotCanvas().redrawRobot(sim.getRobot());
                         // check if the robot is at the goal and stop
-                        if (sim.isAtGoal()) {
+                        if (snapshot.isAtGoal()) {
                             stopSimulator();
                         }
                     }
                 }
             };
+            simulationLoop.start();
             timer.start();
         } else {
             printText("Cannot complete simulation in time");
@@ -237,6 +280,11 @@ public class SimulatorController implements Initializable {
             stopSystemState();
             // update the tabs
             tabController.updateUIs();
+            // stop the simulation thread, the timer has already drawn what it needs
+            if (simulationLoop != null) {
+                simulationLoop.stop();
+                simulationLoop = null;
+            }
             // Kill the timer
             if (timer != null) {
                 timer.stop();
@@ -246,6 +294,143 @@ public class SimulatorController implements Initializable {
         }
     }
 
+    /**
+     * Plays back a recorded run instead of simulating it.  Space pauses, the left and right arrows jump
+     * back and forward, up and down change the speed, home and end jump to either end and escape stops.
+     *
+     * @param file recording written by a TrajectoryRecorder or TraceWriter
+     */
+    public void startReplay(File file) {
+        if (simulatorRunning) {
+            stopSimulator();
+        }
+        stopReplay();
+        try {
+            replay = new ReplayEngine(Recordings.open(file), displayController.getRobotCanvas(),
+                    displayController.getPathCanvas(), WHEEL_RADIUS);
+        } catch (IOException e) {
+            printText("Cannot replay " + file.getName() + ": " + e.getMessage());
+            return;
+        }
+        printText("Replaying " + replay.getSource().getInputDescription());
+        printText("Recorded " + replay.getSource().size() + " samples over "
+                + (replay.getEndTime() - replay.getStartTime()) + " seconds");
+        previousTime = 0;
+        timer = new AnimationTimer() {
+            @Override
+            public void handle(long now) {
+                double deltaTime = 0;
+                if (previousTime != 0) {
+                    deltaTime = (now - previousTime) / 1000000000.0;
+                }
+                previousTime = now;
+                try {
+                    replay.advance(deltaTime);
+                } catch (IOException e) {
+                    printText("Replay failed: " + e.getMessage());
+                    stopReplay();
+                    return;
+                }
+                showReplayState();
+            }
+        };
+        timer.start();
+    }
+
+    /**
+     * Stops the current replay if there is one, the robot stays where the replay left it.
+     */
+    public void stopReplay() {
+        if (replay != null) {
+            if (timer != null) {
+                timer.stop();
+                timer = null;
+            }
+            try {
+                replay.getSource().close();
+            } catch (IOException e) {
+                printText("Cannot close recording: " + e.getMessage());
+            }
+            replay = null;
+            printText("Stopping Replay");
+        }
+    }
+
+    /**
+     * Pauses or resumes the replay.
+     *
+     * @param paused true to pause
+     */
+    public void pauseReplay(boolean paused) {
+        if (replay != null) {
+            replay.setPaused(paused);
+        }
+    }
+
+    /**
+     * Sets the replay speed, 1.0 plays at the recorded speed.
+     *
+     * @param speed recorded seconds per real second
+     */
+    public void setReplaySpeed(double speed) {
+        if (replay != null) {
+            replay.setSpeed(Math.max(1.0 / MAX_REPLAY_SPEED, Math.min(MAX_REPLAY_SPEED, speed)));
+            printText("Replay speed " + replay.getSpeed() + "x");
+        }
+    }
+
+    /**
+     * Jumps the replay to a recorded time.
+     *
+     * @param time recorded time in seconds
+     */
+    public void seekReplay(double time) {
+        if (replay != null) {
+            try {
+                replay.seek(time);
+            } catch (IOException e) {
+                printText("Replay failed: " + e.getMessage());
+                stopReplay();
+                return;
+            }
+            showReplayState();
+        }
+    }
+
+    private void handleReplayKey(KeyCode code) {
+        if (code == KeyCode.SPACE) {
+            pauseReplay(!replay.isPaused());
+        } else if (code == KeyCode.LEFT) {
+            seekReplay(replay.getPlayTime() - REPLAY_SEEK_STEP);
+        } else if (code == KeyCode.RIGHT) {
+            seekReplay(replay.getPlayTime() + REPLAY_SEEK_STEP);
+        } else if (code == KeyCode.HOME) {
+            seekReplay(replay.getStartTime());
+        } else if (code == KeyCode.END) {
+            seekReplay(replay.getEndTime());
+        } else if (code == KeyCode.UP) {
+            setReplaySpeed(replay.getSpeed() * 2);
+        } else if (code == KeyCode.DOWN) {
+            setReplaySpeed(replay.getSpeed() / 2);
+        } else if (code == KeyCode.ESCAPE) {
+            stopReplay();
+        }
+    }
+
+    /**
+     * Shows the replayed robot state, the wheel rates are the recorded ones.
+     */
+    private void showReplayState() {
+        Robot robot = replay.getRobot();
+        robotPosition = new Position(robot.getLocation(), robot.getAngle());
+        updateSystemState(robot);
+        DecimalFormat df = new DecimalFormat("#.###");
+        df.setRoundingMode(RoundingMode.HALF_UP);
+        wheels.setText("Wheel: One: " + df.format(replay.getSample().getWheelRate(0)) + ", Two: "
+                + df.format(replay.getSample().getWheelRate(1)) + ", Three: " + df.format(replay.getSample().getWheelRate(2))
+                + ", Four: " + df.format(replay.getSample().getWheelRate(3)));
+    }
+
     /**
      * Prints out text on the output pane.
      *
@@ -5,6 +5,7 @@ import javafx.scene.canvas.Canvas;
 import javafx.scene.canvas.GraphicsContext;
 import javafx.scene.paint.Color;
 import javafx.scene.paint.Paint;
+import utilities.PathHistory;
 import utilities.Point;
 import utilities.Utils;
 
@@ -22,10 +23,16 @@ public class PathCanvas {
     private static Paint WAY_POINT_COLOR = Color.BLUE;
     private static double ROBOT_LINE_WIDTH = 0.0;
     private static Paint ROBOT_LINE_COLOR = Color.LIME;
+    // ROBOT_LINE_COLOR as 0xAARRGGBB for the path tiles
+    private static int ROBOT_LINE_ARGB = 0xFF00FF00;
+    // how far in pixels the stored robot path can stray from the drawn one, 2 pixels = 1"
+    private static double PATH_TOLERANCE = 0.5;
 
     private Canvas pathCanvas;
-    // preallocate arraylist, does this help with drawing bug?
-    private ArrayList<Point> robotPath = new ArrayList<>(100000);
+    // robot path in pixels, simplified as it grows so long runs stay small
+    private PathHistory robotPath = new PathHistory(PATH_TOLERANCE);
+    // robot path rasterized in world space tiles, recentering only draws the visible ones
+    private PathTiles robotTiles = new PathTiles(ROBOT_LINE_ARGB);
     private Point previousPosition;
     private Point canvasCenter;
     // origin of the display area, new requirement
@@ -48,7 +55,7 @@ public class PathCanvas {
         Utils.clearCanvas(gc, WIDTH, HEIGHT);
         startingLocation = position;
         previousPosition = position;
-        robotPath.add(position);
+        robotPath.add(position.getX(), position.getY());
         canvasCenter = position;
         // Make sure to try and draw the origin
         redrawOrigin();
@@ -71,12 +78,13 @@ public class PathCanvas {
      * Function to draw a path on the canvas
      */
     public void updateRobotPath(Point newLocation) {
-        robotPath.add(newLocation);
+        robotPath.add(newLocation.getX(), newLocation.getY());
+        robotTiles.addSegment(previousPosition.getX(), previousPosition.getY(), newLocation.getX(), newLocation.getY());
         Point oldPoint = Utils.convertToPaneCoordinates(previousPosition, this.canvasCenter);
         Point newPoint = Utils.convertToPaneCoordinates(newLocation, this.canvasCenter);
         GraphicsContext gc = pathCanvas.getGraphicsContext2D();
-        gc.setStroke(Color.LIME);
-        gc.setLineWidth(0);
+        gc.setStroke(ROBOT_LINE_COLOR);
+        gc.setLineWidth(ROBOT_LINE_WIDTH);
         gc.strokeLine(oldPoint.getX(), oldPoint.getY(), newPoint.getX(), newPoint.getY());
         previousPosition = newLocation;
     }
@@ -86,9 +94,45 @@ public class PathCanvas {
      */
     public void restartCanvas() {
         robotPath.clear();
+        robotTiles.clear();
         clearCanvas();
     }
 
+    /**
+     * Drops the end of the robot's path and redraws what is left, used when a replay jumps backwards.
+     *
+     * @param size number of added path points to keep
+     */
+    public void truncateRobotPath(long size) {
+        if (size < robotPath.getAddedCount()) {
+            robotPath.truncate(size);
+            // tiles can't be erased, draw what is left from scratch
+            rebuildRobotTiles();
+            updateCenter(canvasCenter);
+        }
+        // the next point continues from the end of what is left
+        int last = robotPath.size() - 1;
+        previousPosition = last < 0 ? startingLocation : new Point(robotPath.getX(last), robotPath.getY(last));
+    }
+
+    /**
+     * Number of points added to the robot's path, including the ones simplified away.
+     *
+     * @return points added
+     */
+    public long getRobotPathSize() {
+        return robotPath.getAddedCount();
+    }
+
+    /**
+     * Sets how far the stored robot path can stray from the points drawn, bigger drops more points.
+     *
+     * @param tolerance tolerance in pixels
+     */
+    public void setPathTolerance(double tolerance) {
+        robotPath.setTolerance(tolerance);
+    }
+
     /**
      * Clear the path canvas of all drawings.
      */
@@ -153,19 +197,20 @@ public class PathCanvas {
     }
 
     /**
-     * Redraws the robot path, useful if the canvas center was moved.
+     * Redraws the robot path, useful if the canvas center was moved.  Only the cached tiles in view are
+     * drawn, so it costs the same however long the path is.
      */
     private void redrawRobotPath() {
-        GraphicsContext gc = pathCanvas.getGraphicsContext2D();
+        robotTiles.draw(pathCanvas.getGraphicsContext2D(), canvasCenter.getX(), canvasCenter.getY(), WIDTH, HEIGHT);
+    }
+
+    /**
+     * Rasterizes the stored robot path in to empty tiles, used when the path was cut back.
+     */
+    private void rebuildRobotTiles() {
+        robotTiles.clear();
         for (int i = 1; i < robotPath.size(); i++) {
-            if (isInsideCanvas(robotPath.get(i))) {
-                Point oldPoint = Utils.convertToPaneCoordinates(robotPath.get(i - 1), this.canvasCenter);
-                Point newPoint = Utils.convertToPaneCoordinates(robotPath.get(i), this.canvasCenter);
-                // draw the line
-                gc.setStroke(ROBOT_LINE_COLOR);
-                gc.setLineWidth(ROBOT_LINE_WIDTH);
-                gc.strokeLine(oldPoint.getX(), oldPoint.getY(), newPoint.getX(), newPoint.getY());
-            }
+            robotTiles.addSegment(robotPath.getX(i - 1), robotPath.getY(i - 1), robotPath.getX(i), robotPath.getY(i));
         }
     }
 
@@ -173,7 +218,8 @@ public class PathCanvas {
      * Redraws the input defined path.  Make sure to draw BEFORE the robot path
      */
     public void redrawInputPath() {
-        if (input.getMode() != InputMode.CONTROL_WHEELS) {
+        // replays don't have an input to draw
+        if (input != null && input.getMode() != InputMode.CONTROL_WHEELS) {
             switch (input.getMode()) {
                 case CONTROL_GENERAL:
                     drawGeneralPath((GeneralInput) input);
@@ -307,7 +353,7 @@ public class PathCanvas {
      */
     private boolean isInsideCanvas(Point point) {
         if (point.getX() > this.canvasCenter.getX() - 180 && point.getX() < this.canvasCenter.getX() + 180 &&
-                point.getY() > this.canvasCenter.getX() - 360 && point.getY() < this.canvasCenter.getY() + 360) {
+                point.getY() > this.canvasCenter.getY() - 360 && point.getY() < this.canvasCenter.getY() + 360) {
             return true;
         }
         return false;
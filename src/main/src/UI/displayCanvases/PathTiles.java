@@ -0,0 +1,146 @@
+package UI.displayCanvases;
+
+import javafx.scene.canvas.GraphicsContext;
+import javafx.scene.image.PixelWriter;
+import javafx.scene.image.WritableImage;
+
+import java.util.HashMap;
+
+/**
+ * Path layer cached in square world space tiles.  Segments are rasterized in to the tiles they cross as
+ * they arrive, so moving the view only has to draw the tiles that are visible, however long the path is.
+ * Tiles are only made where the path has been, an empty tile is never stored.
+ * <p/>
+ * World space is the GRF in PIXEL coordinates, one tile pixel per canvas pixel.
+ * <p/>
+ * Created by CyberPuck on 2026-10-17.
+ */
+public class PathTiles {
+    // pixels per tile side, a power of two so the tile is a shift
+    private static int TILE_BITS = 8;
+    private static int TILE_SIZE = 1 << TILE_BITS;
+
+    // tiles keyed by their packed column and row
+    private HashMap<Long, WritableImage> tiles = new HashMap<>();
+    // color of the path as 0xAARRGGBB
+    private int argb;
+    // last tile written, consecutive pixels are nearly always in the same one
+    private long lastKey;
+    private PixelWriter lastWriter;
+
+    /**
+     * Creates an empty layer.
+     *
+     * @param argb path color as 0xAARRGGBB
+     */
+    public PathTiles(int argb) {
+        this.argb = argb;
+    }
+
+    /**
+     * Rasterizes a segment in to the tiles, one pixel wide.
+     *
+     * @param x0 start x in PIXEL coordinates
+     * @param y0 start y in PIXEL coordinates
+     * @param x1 end x in PIXEL coordinates
+     * @param y1 end y in PIXEL coordinates
+     */
+    public void addSegment(double x0, double y0, double x1, double y1) {
+        // Bresenham between the pixels the end points fall in
+        int x = (int) Math.floor(x0);
+        int y = (int) Math.floor(y0);
+        int endX = (int) Math.floor(x1);
+        int endY = (int) Math.floor(y1);
+        int dx = Math.abs(endX - x);
+        int dy = -Math.abs(endY - y);
+        int stepX = x < endX ? 1 : -1;
+        int stepY = y < endY ? 1 : -1;
+        int error = dx + dy;
+        while (true) {
+            setPixel(x, y);
+            if (x == endX && y == endY) {
+                break;
+            }
+            int error2 = 2 * error;
+            if (error2 >= dy) {
+                error += dy;
+                x += stepX;
+            }
+            if (error2 <= dx) {
+                error += dx;
+                y += stepY;
+            }
+        }
+    }
+
+    private void setPixel(int x, int y) {
+        int column = x >> TILE_BITS;
+        int row = y >> TILE_BITS;
+        long key = getKey(column, row);
+        if (lastWriter == null || key != lastKey) {
+            WritableImage tile = tiles.get(key);
+            if (tile == null) {
+                tile = new WritableImage(TILE_SIZE, TILE_SIZE);
+                tiles.put(key, tile);
+            }
+            lastKey = key;
+            lastWriter = tile.getPixelWriter();
+        }
+        // images count rows down, the GRF counts y up
+        lastWriter.setArgb(x - (column << TILE_BITS), TILE_SIZE - 1 - (y - (row << TILE_BITS)), argb);
+    }
+
+    /**
+     * Draws the tiles inside a view on to a canvas.
+     *
+     * @param gc      graphics context of the canvas
+     * @param centerX center x of the view in PIXEL coordinates
+     * @param centerY center y of the view in PIXEL coordinates
+     * @param width   width of the view in pixels
+     * @param height  height of the view in pixels
+     */
+    public void draw(GraphicsContext gc, double centerX, double centerY, double width, double height) {
+        if (tiles.isEmpty()) {
+            return;
+        }
+        double left = centerX - width / 2;
+        double bottom = centerY - height / 2;
+        // whole pixel offsets, a fractional one would blur the one pixel lines
+        double offsetX = Math.floor(-left + 0.5);
+        double offsetY = Math.floor(height + bottom + 0.5);
+        int firstColumn = (int) Math.floor(left) >> TILE_BITS;
+        int lastColumn = (int) Math.floor(left + width) >> TILE_BITS;
+        int firstRow = (int) Math.floor(bottom) >> TILE_BITS;
+        int lastRow = (int) Math.floor(bottom + height) >> TILE_BITS;
+        for (int row = firstRow; row <= lastRow; row++) {
+            for (int column = firstColumn; column <= lastColumn; column++) {
+                WritableImage tile = tiles.get(getKey(column, row));
+                if (tile != null) {
+                    // the top edge of the tile is the bottom of the next row up
+                    gc.drawImage(tile, (column << TILE_BITS) + offsetX, offsetY - ((row + 1) << TILE_BITS));
+                }
+            }
+        }
+    }
+
+    /**
+     * Drops every tile.
+     */
+    public void clear() {
+        tiles.clear();
+        lastWriter = null;
+    }
+
+    /**
+     * Number of tiles the path has touched.
+     *
+     * @return tile count
+     */
+    public int size() {
+        return tiles.size();
+    }
+
+    private static long getKey(int column, int row) {
+        return ((long) column << 32) | (row & 0xFFFFFFFFL);
+    }
+}
@@ -66,17 +66,41 @@ public class RobotCanvas {
      * Draw the robot at its new position.
      */
     public void redrawRobot(Robot simRobot) {
+        drawRobot(simRobot.getX(), simRobot.getY(), simRobot.getAngle());
+    }
+
+    /**
+     * Draw the robot part of the way between two physics steps, so the motion stays smooth when the
+     * frame rate and the physics rate don't line up.
+     *
+     * @param previous robot at the earlier step
+     * @param current  robot at the later step
+     * @param alpha    how far between the steps to draw, 0 is previous and 1 is current
+     */
+    public void redrawRobot(Robot previous, Robot current, double alpha) {
+        double x = previous.getX() + (current.getX() - previous.getX()) * alpha;
+        double y = previous.getY() + (current.getY() - previous.getY()) * alpha;
+        // turn the short way round in case the angle wrapped between the steps
+        double turn = current.getAngle() - previous.getAngle();
+        turn -= 360.0 * Math.floor((turn + 180.0) / 360.0);
+        drawRobot(x, y, previous.getAngle() + turn * alpha);
+    }
+
+    /**
+     * Draws the robot at a location and angle and adds the location to the path.
+     */
+    private void drawRobot(double x, double y, double angle) {
         GraphicsContext gc = robotCanvas.getGraphicsContext2D();
         // clear the field first
         Utils.clearCanvas(gc, X_LENGTH, Y_LENGTH);
         // calculate the new location of the robot
-        Point newPosition = Utils.convertLocationToPixels(simRobot.getLocation());
+        Point newPosition = Utils.convertLocationToPixels(new Point(x, y));
         // make sure we don't going running out of the boundary
         checkBoundaries(newPosition);
         Point panePoint = Utils.convertToPaneCoordinates(newPosition, this.canvasCenter);
         // set the robot position and angle
         this.robotPosition.setPosition(panePoint);
-        this.robotPosition.setAngle(simRobot.getAngle());
+        this.robotPosition.setAngle(angle);
         // draw the robot
         gc.save();
         // Update the robot location
@@ -0,0 +1,33 @@
+package benchmark;
+
+/**
+ * A single micro benchmark.  Subclasses run the measured code a number of times and return a value
+ * built from the results so the JIT can't throw the work away.
+ * <p/>
+ * Created by CyberPuck on 2026-10-17.
+ */
+public abstract class BenchmarkCase {
+    private String name;
+
+    public BenchmarkCase(String name) {
+        this.name = name;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Called once before warm up, create any inputs here so they aren't measured.
+     */
+    public void setup() {
+    }
+
+    /**
+     * Runs the measured code.
+     *
+     * @param operations number of times to run it
+     * @return value depending on every result
+     */
+    public abstract double run(int operations);
+}
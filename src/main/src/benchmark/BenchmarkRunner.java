@@ -0,0 +1,192 @@
+package benchmark;
+
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Runs the benchmark cases with warm up and measurement iterations, then reports the time per
+ * operation and how much each operation allocates.
+ * <p/>
+ * Usage: BenchmarkRunner [filter] [--csv file]
+ * The filter only runs cases whose name contains it, the csv file gets one line per case appended
+ * so results can be tracked over time.
+ * <p/>
+ * Created by CyberPuck on 2026-10-17.
+ */
+public class BenchmarkRunner {
+    private static int WARMUP_ITERATIONS = 5;
+    private static int MEASUREMENT_ITERATIONS = 5;
+    // time spent on each iteration, in nanoseconds
+    private static long WARMUP_TIME = 200000000L;
+    private static long MEASUREMENT_TIME = 500000000L;
+    // operations run between clock checks
+    private static int BATCH_SIZE = 1000;
+
+    // keeps the results of every case alive so the JIT can't drop the work
+    private double sink;
+    // HotSpot's thread bean can report allocated bytes, null if this JVM can't
+    private com.sun.management.ThreadMXBean threadBean;
+
+    public BenchmarkRunner() {
+        java.lang.management.ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        if (bean instanceof com.sun.management.ThreadMXBean) {
+            threadBean = (com.sun.management.ThreadMXBean) bean;
+            if (threadBean.isThreadAllocatedMemorySupported()) {
+                threadBean.setThreadAllocatedMemoryEnabled(true);
+            } else {
+                threadBean = null;
+            }
+        }
+    }
+
+    public static void main(String[] args) {
+        String filter = "";
+        String csvFile = null;
+        for (int i = 0; i < args.length; i++) {
+            if (args[i].equals("--csv") && i + 1 < args.length) {
+                csvFile = args[++i];
+            } else {
+                filter = args[i];
+            }
+        }
+        BenchmarkRunner runner = new BenchmarkRunner();
+        List<BenchmarkResult> results = new ArrayList<>();
+        System.out.println(String.format("%-50s %14s %12s %12s %14s", "Benchmark", "ns/op", "error", "B/op", "alloc MB/s"));
+        for (BenchmarkCase benchmark : SimulatorBenchmarks.createCases()) {
+            if (!benchmark.getName().contains(filter)) {
+                continue;
+            }
+            BenchmarkResult result = runner.measure(benchmark);
+            results.add(result);
+            System.out.println(result);
+        }
+        if (csvFile != null) {
+            writeCsv(csvFile, results);
+        }
+    }
+
+    /**
+     * Warms up then measures a single case.
+     *
+     * @param benchmark case to measure
+     * @return time and allocation per operation
+     */
+    public BenchmarkResult measure(BenchmarkCase benchmark) {
+        benchmark.setup();
+        for (int i = 0; i < WARMUP_ITERATIONS; i++) {
+            runIteration(benchmark, WARMUP_TIME);
+        }
+        double[] nanosPerOp = new double[MEASUREMENT_ITERATIONS];
+        long totalOperations = 0;
+        long totalTime = 0;
+        long startBytes = allocatedBytes();
+        for (int i = 0; i < MEASUREMENT_ITERATIONS; i++) {
+            long start = System.nanoTime();
+            long operations = runIteration(benchmark, MEASUREMENT_TIME);
+            long time = System.nanoTime() - start;
+            nanosPerOp[i] = (double) time / operations;
+            totalOperations += operations;
+            totalTime += time;
+        }
+        long bytes = allocatedBytes() - startBytes;
+        double mean = 0;
+        for (double value : nanosPerOp) {
+            mean += value;
+        }
+        mean /= nanosPerOp.length;
+        double variance = 0;
+        for (double value : nanosPerOp) {
+            variance += (value - mean) * (value - mean);
+        }
+        double error = Math.sqrt(variance / (nanosPerOp.length - 1));
+        double bytesPerOp = startBytes < 0 ? -1 : (double) bytes / totalOperations;
+        double allocationRate = startBytes < 0 ? -1 : bytes / (totalTime / 1000000000.0) / (1024 * 1024);
+        return new BenchmarkResult(benchmark.getName(), mean, error, bytesPerOp, allocationRate);
+    }
+
+    /**
+     * Runs batches of operations until the time runs out.
+     *
+     * @return number of operations run
+     */
+    private long runIteration(BenchmarkCase benchmark, long time) {
+        long operations = 0;
+        long end = System.nanoTime() + time;
+        do {
+            sink += benchmark.run(BATCH_SIZE);
+            operations += BATCH_SIZE;
+        } while (System.nanoTime() < end);
+        return operations;
+    }
+
+    private long allocatedBytes() {
+        if (threadBean == null) {
+            return -1;
+        }
+        return threadBean.getThreadAllocatedBytes(Thread.currentThread().getId());
+    }
+
+    public double getSink() {
+        return sink;
+    }
+
+    private static void writeCsv(String file, List<BenchmarkResult> results) {
+        long timestamp = System.currentTimeMillis();
+        try (PrintWriter out = new PrintWriter(new FileWriter(file, true))) {
+            for (BenchmarkResult result : results) {
+                out.println(timestamp + "," + result.getName() + "," + result.getNanosPerOp() + ","
+                        + result.getError() + "," + result.getBytesPerOp() + "," + result.getAllocationRate());
+            }
+        } catch (IOException e) {
+            System.err.println("Error: " + e);
+        }
+    }
+
+    /**
+     * Measurement of a single case.
+     */
+    public static class BenchmarkResult {
+        private String name;
+        private double nanosPerOp;
+        private double error;
+        private double bytesPerOp;
+        private double allocationRate;
+
+        public BenchmarkResult(String name, double nanosPerOp, double error, double bytesPerOp, double allocationRate) {
+            this.name = name;
+            this.nanosPerOp = nanosPerOp;
+            this.error = error;
+            this.bytesPerOp = bytesPerOp;
+            this.allocationRate = allocationRate;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public double getNanosPerOp() {
+            return nanosPerOp;
+        }
+
+        public double getError() {
+            return error;
+        }
+
+        public double getBytesPerOp() {
+            return bytesPerOp;
+        }
+
+        public double getAllocationRate() {
+            return allocationRate;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%-50s %14.3f %12.3f %12.1f %14.1f", name, nanosPerOp, error, bytesPerOp, allocationRate);
+        }
+    }
+}
@@ -0,0 +1,282 @@
+package benchmark;
+
+import inputs.*;
+import robot.Kinematics;
+import robot.Robot;
+import robot.VelocityEquations;
+import simulator.Simulator;
+import utilities.FastTrig;
+import utilities.Point;
+import utilities.Position;
+import utilities.SinCos;
+import utilities.Utils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Benchmark cases for the kinematics, geometry helpers and a full simulator step for every input mode.
+ * InputMode.WAY_POINTS has no input class and isn't handled by the simulator, so it has no step case.
+ * <p/>
+ * Created by CyberPuck on 2026-10-17.
+ */
+public class SimulatorBenchmarks {
+    private static double WHEEL_RADIUS = 0.5;
+    // number of random inputs, power of two so the index can be masked
+    private static int SAMPLES = 1024;
+    private static int MASK = SAMPLES - 1;
+    // time step for the simulator cases, 1 kHz
+    private static double TIME_STEP = 0.001;
+
+    // random inputs shared by the cases, filled by a fixed seed so runs are comparable
+    private static double[] a = new double[SAMPLES];
+    private static double[] b = new double[SAMPLES];
+    private static double[] c = new double[SAMPLES];
+    private static double[] d = new double[SAMPLES];
+    private static Point[] points = new Point[SAMPLES];
+    private static Position[] positions = new Position[SAMPLES];
+
+    static {
+        Random random = new Random(2016);
+        for (int i = 0; i < SAMPLES; i++) {
+            a[i] = random.nextDouble() * 20 - 10;
+            b[i] = random.nextDouble() * 20 - 10;
+            c[i] = random.nextDouble() * 20 - 10;
+            d[i] = random.nextDouble() * 360 - 180;
+            points[i] = new Point(random.nextDouble() * 100 - 50, random.nextDouble() * 100 - 50);
+            positions[i] = new Position(new Point(a[i], b[i]), d[i]);
+        }
+    }
+
+    /**
+     * Creates every benchmark case.
+     *
+     * @return list of cases
+     */
+    public static List<BenchmarkCase> createCases() {
+        List<BenchmarkCase> cases = new ArrayList<>();
+        cases.add(new BenchmarkCase("Kinematics.calculateVelocityX") {
+            @Override
+            public double run(int operations) {
+                double sum = 0;
+                for (int i = 0; i < operations; i++) {
+                    int j = i & MASK;
+                    sum += Kinematics.calculateVelocityX(WHEEL_RADIUS, a[j], b[j], c[j], d[j]);
+                }
+                return sum;
+            }
+        });
+        cases.add(new BenchmarkCase("Kinematics.calculateVelocityY") {
+            @Override
+            public double run(int operations) {
+                double sum = 0;
+                for (int i = 0; i < operations; i++) {
+                    int j = i & MASK;
+                    sum += Kinematics.calculateVelocityY(WHEEL_RADIUS, a[j], b[j], c[j], d[j]);
+                }
+                return sum;
+            }
+        });
+        cases.add(new BenchmarkCase("Kinematics.calculateVehicleRotation") {
+            @Override
+            public double run(int operations) {
+                double sum = 0;
+                for (int i = 0; i < operations; i++) {
+                    int j = i & MASK;
+                    sum += Kinematics.calculateVehicleRotation(WHEEL_RADIUS, 1.0, 2.0, a[j], b[j], c[j], d[j]);
+                }
+                return sum;
+            }
+        });
+        cases.add(new BenchmarkCase("Robot.getWheelRates") {
+            private Robot robot = new Robot(WHEEL_RADIUS);
+
+            @Override
+            public double run(int operations) {
+                double sum = 0;
+                for (int i = 0; i < operations; i++) {
+                    int j = i & MASK;
+                    robot.setVelocity(a[j], b[j]);
+                    robot.setRotationRate(c[j]);
+                    sum += robot.getWheelRates()[j & 3];
+                }
+                return sum;
+            }
+        });
+        cases.add(new BenchmarkCase("Kinematics.calculateWheelRotations batch") {
+            private double[][] wheels = new double[4][SAMPLES];
+
+            @Override
+            public double run(int operations) {
+                // one operation is one sample, whole batches of SAMPLES at a time
+                for (int done = 0; done < operations; done += SAMPLES) {
+                    Kinematics.calculateWheelRotations(WHEEL_RADIUS, 1.0, 2.0, a, b, c,
+                            wheels[0], wheels[1], wheels[2], wheels[3], 0, Math.min(SAMPLES, operations - done));
+                }
+                return wheels[0][0] + wheels[3][MASK];
+            }
+        });
+        cases.add(new BenchmarkCase("Kinematics.calculateBodyVelocities batch") {
+            private double[][] body = new double[3][SAMPLES];
+
+            @Override
+            public double run(int operations) {
+                for (int done = 0; done < operations; done += SAMPLES) {
+                    Kinematics.calculateBodyVelocities(WHEEL_RADIUS, 1.0, 2.0, a, b, c, d,
+                            body[0], body[1], body[2], 0, Math.min(SAMPLES, operations - done));
+                }
+                return body[0][0] + body[2][MASK];
+            }
+        });
+        cases.add(new BenchmarkCase("VelocityEquations.convertYawToGlobal") {
+            @Override
+            public double run(int operations) {
+                double sum = 0;
+                for (int i = 0; i < operations; i++) {
+                    sum += VelocityEquations.convertYawToGlobalFrame(positions[i & MASK]).getX();
+                }
+                return sum;
+            }
+        });
+        cases.add(new BenchmarkCase("FastTrig.sinCos exact") {
+            private SinCos result = new SinCos();
+
+            @Override
+            public double run(int operations) {
+                double sum = 0;
+                for (int i = 0; i < operations; i++) {
+                    FastTrig.sinCos(d[i & MASK], result);
+                    sum += result.getSin() + result.getCos();
+                }
+                return sum;
+            }
+        });
+        cases.add(new BenchmarkCase("FastTrig.sinCos approximate") {
+            private SinCos result = new SinCos();
+
+            @Override
+            public double run(int operations) {
+                // the mode is global, only switch it for this case
+                FastTrig.setApproximate(true);
+                double sum = 0;
+                for (int i = 0; i < operations; i++) {
+                    FastTrig.sinCos(d[i & MASK], result);
+                    sum += result.getSin() + result.getCos();
+                }
+                FastTrig.setApproximate(false);
+                return sum;
+            }
+        });
+        cases.add(new BenchmarkCase("Utils.getAngle") {
+            @Override
+            public double run(int operations) {
+                double sum = 0;
+                for (int i = 0; i < operations; i++) {
+                    sum += Utils.getAngle(points[i & MASK], points[(i + 1) & MASK]);
+                }
+                return sum;
+            }
+        });
+        cases.add(new BenchmarkCase("Utils.calculatePoint") {
+            @Override
+            public double run(int operations) {
+                double sum = 0;
+                for (int i = 0; i < operations; i++) {
+                    int j = i & MASK;
+                    sum += Utils.calculatePoint(points[j], a[j], d[j]).getY();
+                }
+                return sum;
+            }
+        });
+        cases.add(new BenchmarkCase("Utils.distanceBetweenPoints") {
+            @Override
+            public double run(int operations) {
+                double sum = 0;
+                for (int i = 0; i < operations; i++) {
+                    sum += Utils.distanceBetweenPoints(points[i & MASK], points[(i + 1) & MASK]);
+                }
+                return sum;
+            }
+        });
+        cases.add(new BenchmarkCase("Utils.roundDouble") {
+            @Override
+            public double run(int operations) {
+                double sum = 0;
+                for (int i = 0; i < operations; i++) {
+                    sum += Utils.roundDouble(a[i & MASK]);
+                }
+                return sum;
+            }
+        });
+        for (InputMode mode : InputMode.values()) {
+            if (mode != InputMode.WAY_POINTS) {
+                cases.add(new SimulatorStep(mode));
+            }
+        }
+        return cases;
+    }
+
+    /**
+     * Creates an input for the mode that takes a long time to finish.
+     *
+     * @param mode mode of the input
+     * @return input for the simulator
+     */
+    private static RobotInput createInput(InputMode mode) {
+        ArrayList<Point> wayPoints = new ArrayList<>();
+        switch (mode) {
+            case CONTROL_WHEELS:
+                return new WheelInput(1.0, 2.0, 1.5, 2.5);
+            case CONTROL_GENERAL:
+                GeneralInput gi = new GeneralInput(30.0, 2.0, 5.0);
+                gi.setStartLocation(new Point(0, 0));
+                return gi;
+            case POINT:
+                PointInput pi = new PointInput(new Point(300, 400), 5.0, 90.0, 100.0, 0.9);
+                pi.setWayPoints(wayPoints);
+                return pi;
+            case PATH_CIRCLE:
+                CirclePathInput cpi = new CirclePathInput(new Point(0, 0), 100.0, 30.0, 0.0, 2.0, 60.0);
+                cpi.setWayPoints(wayPoints);
+                return cpi;
+            case PATH_RECTANGLE:
+                RectanglePathInput rpi = new RectanglePathInput(new Point(0, 0), 200.0, 100.0, 30.0, 0.0, 2.0, 60.0);
+                rpi.setWayPoints(wayPoints);
+                return rpi;
+            default:
+                FigureEightPathInput fepi = new FigureEightPathInput(new Point(0, 0), 60.0, 80.0, 30.0, 0.0, 2.0, 80.0);
+                fepi.setWayPoints(wayPoints);
+                return fepi;
+        }
+    }
+
+    /**
+     * One Simulator.calculateNewPosition call per operation, a new simulator is built when the goal is reached.
+     */
+    private static class SimulatorStep extends BenchmarkCase {
+        private InputMode mode;
+        private Simulator sim;
+
+        SimulatorStep(InputMode mode) {
+            super("Simulator.calculateNewPosition " + mode);
+            this.mode = mode;
+        }
+
+        @Override
+        public void setup() {
+            sim = new Simulator(createInput(mode), new Robot(WHEEL_RADIUS), WHEEL_RADIUS);
+        }
+
+        @Override
+        public double run(int operations) {
+            for (int i = 0; i < operations; i++) {
+                sim.calculateNewPosition(TIME_STEP);
+                if (sim.isAtGoal()) {
+                    setup();
+                }
+            }
+            return sim.getRobot().getX();
+        }
+    }
+}
@@ -41,4 +41,15 @@ public class WheelInput implements RobotInput {
     public double getWheelFour() {
         return wheelFour;
     }
+
+    @Override
+    public String toString() {
+        return "WheelInput{" +
+                "mode=" + mode +
+                ", wheelOne=" + wheelOne +
+                ", wheelTwo=" + wheelTwo +
+                ", wheelThree=" + wheelThree +
+                ", wheelFour=" + wheelFour +
+                '}';
+    }
 }
@@ -0,0 +1,62 @@
+package recording;
+
+import java.io.DataInputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+
+/**
+ * Helpers for reading back recorded runs without caring which format they were written in.
+ * <p/>
+ * Created by CyberPuck on 2026-10-17.
+ */
+public class Recordings {
+    /**
+     * Opens a file written by either TrajectoryRecorder or TraceWriter, the format is picked from the
+     * magic number at the start of the file.
+     *
+     * @param path recording to read
+     * @return source reading the recording
+     * @throws IOException if the file can't be read or isn't a recording
+     */
+    public static TrajectorySource open(File path) throws IOException {
+        int magic;
+        DataInputStream in = new DataInputStream(new FileInputStream(path));
+        try {
+            magic = in.readInt();
+        } catch (IOException e) {
+            throw new IOException("Not a recording: " + path, e);
+        } finally {
+            in.close();
+        }
+        if (magic == TraceWriter.MAGIC) {
+            return new TraceReader(path);
+        } else if (magic == TrajectoryRecorder.MAGIC) {
+            return new TrajectoryReader(path);
+        }
+        throw new IOException("Not a recording: " + path);
+    }
+
+    /**
+     * Counts the samples at or before a time with a binary search.
+     *
+     * @param source recording to search
+     * @param time   time in seconds
+     * @param sample scratch sample used while searching
+     * @return number of samples with a time at or before the given time
+     * @throws IOException if a sample can't be read
+     */
+    public static long countUntil(TrajectorySource source, double time, Sample sample) throws IOException {
+        long low = 0;
+        long high = source.size();
+        while (low < high) {
+            long middle = (low + high) >>> 1;
+            if (source.read(middle, sample).getTime() <= time) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+}
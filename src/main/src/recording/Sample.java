@@ -0,0 +1,106 @@
+package recording;
+
+import robot.Robot;
+
+/**
+ * One recorded robot state.  Readers fill an existing sample so stepping through a recording doesn't
+ * allocate.
+ * <p/>
+ * Created by CyberPuck on 2026-10-17.
+ */
+public class Sample {
+    // simulated time in seconds
+    private double time;
+    // GRF location in feet
+    private double x;
+    private double y;
+    // velocity in the robot reference frame in feet/sec
+    private double velocityX;
+    private double velocityY;
+    // angle in degrees and rotation rate in degrees/sec
+    private double angle;
+    private double rotationRate;
+    // upper left, upper right, lower left, lower right wheel rates
+    private double[] wheelRates = new double[4];
+
+    public double getTime() {
+        return time;
+    }
+
+    public double getX() {
+        return x;
+    }
+
+    public double getY() {
+        return y;
+    }
+
+    public double getVelocityX() {
+        return velocityX;
+    }
+
+    public double getVelocityY() {
+        return velocityY;
+    }
+
+    public double getAngle() {
+        return angle;
+    }
+
+    public double getRotationRate() {
+        return rotationRate;
+    }
+
+    /**
+     * Rate of a single wheel.
+     *
+     * @param wheel 0 upper left, 1 upper right, 2 lower left, 3 lower right
+     * @return wheel rate
+     */
+    public double getWheelRate(int wheel) {
+        return wheelRates[wheel];
+    }
+
+    /**
+     * Sets every field, used by the readers.
+     */
+    public void set(double time, double x, double y, double velocityX, double velocityY, double angle,
+                    double rotationRate, double w1, double w2, double w3, double w4) {
+        this.time = time;
+        this.x = x;
+        this.y = y;
+        this.velocityX = velocityX;
+        this.velocityY = velocityY;
+        this.angle = angle;
+        this.rotationRate = rotationRate;
+        wheelRates[0] = w1;
+        wheelRates[1] = w2;
+        wheelRates[2] = w3;
+        wheelRates[3] = w4;
+    }
+
+    /**
+     * Moves a robot to the recorded state, useful for drawing a recording.
+     *
+     * @param robot Robot to update
+     */
+    public void copyTo(Robot robot) {
+        robot.setLocation(x, y);
+        robot.setAngle(angle);
+        robot.setVelocity(velocityX, velocityY);
+        robot.setRotationRate(rotationRate);
+    }
+
+    @Override
+    public String toString() {
+        return "Sample{" +
+                "time=" + time +
+                ", x=" + x +
+                ", y=" + y +
+                ", velocityX=" + velocityX +
+                ", velocityY=" + velocityY +
+                ", angle=" + angle +
+                ", rotationRate=" + rotationRate +
+                '}';
+    }
+}
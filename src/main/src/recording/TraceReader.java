@@ -0,0 +1,386 @@
+package recording;
+
+import utilities.FixedPoint;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Reads a trace written by TraceWriter.  Works like a cursor that can move either way: seek to a time,
+ * then step forwards with next() or backwards with previous().  Only the block under the cursor is
+ * decoded, so reading a short window of a long run only touches a block or two.
+ * <p/>
+ * Created by CyberPuck on 2026-10-17.
+ */
+public class TraceReader implements TrajectorySource {
+    private RandomAccessFile file;
+    private FileChannel channel;
+    private String inputMode;
+    private String inputDescription;
+    // index of the blocks, firstSamples[i] is the number of samples before block i
+    private long[] offsets;
+    private long[] firstTimes;
+    private long[] lastTimes;
+    private int[] counts;
+    private long[] firstSamples;
+    private int blockCount;
+    private long sampleCount;
+    // decoded block, [field][sample]
+    private long[][] values;
+    private int decodedBlock = -1;
+    private ByteBuffer buffer;
+    // cursor: next() returns sample cursorSample of block cursorBlock
+    private int cursorBlock;
+    private int cursorSample;
+
+    /**
+     * Opens a trace and reads its index, or rebuilds it from the blocks if the trace wasn't closed.
+     *
+     * @param path trace to read
+     * @throws IOException if the file can't be read or isn't a trace
+     */
+    public TraceReader(File path) throws IOException {
+        file = new RandomAccessFile(path, "r");
+        channel = file.getChannel();
+        ByteBuffer header = read(0, (int) Math.min(channel.size(), 4096));
+        if (header.remaining() < 20 || header.getInt() != TraceWriter.MAGIC) {
+            close();
+            throw new IOException("Not a trace: " + path);
+        }
+        int version = header.getInt();
+        if (version != TraceWriter.VERSION) {
+            close();
+            throw new IOException("Unsupported trace version " + version + ": " + path);
+        }
+        int blockSamples = header.getInt();
+        int modeLength = header.getInt();
+        if (header.remaining() < modeLength + 4) {
+            header = read(0, 16 + modeLength + 4);
+            header.position(16);
+        }
+        inputMode = readString(header, modeLength);
+        int descriptionLength = header.getInt();
+        long start = 16 + modeLength + 4;
+        header = read(start, descriptionLength);
+        inputDescription = readString(header, descriptionLength);
+        long blocksStart = start + descriptionLength;
+
+        values = new long[TraceWriter.FIELDS][blockSamples];
+        buffer = ByteBuffer.allocate(TraceWriter.BLOCK_HEADER_SIZE + TraceWriter.FIELDS * TraceWriter.MAX_VARINT * blockSamples);
+        if (!readIndex(blocksStart)) {
+            rebuildIndex(blocksStart);
+        }
+        firstSamples = new long[blockCount + 1];
+        for (int i = 0; i < blockCount; i++) {
+            firstSamples[i + 1] = firstSamples[i] + counts[i];
+        }
+        sampleCount = firstSamples[blockCount];
+    }
+
+    public String getInputMode() {
+        return inputMode;
+    }
+
+    /**
+     * The toString() of the input that was traced.
+     *
+     * @return input description
+     */
+    public String getInputDescription() {
+        return inputDescription;
+    }
+
+    public long size() {
+        return sampleCount;
+    }
+
+    public int getBlockCount() {
+        return blockCount;
+    }
+
+    /**
+     * Time of the first sample.
+     *
+     * @return time in seconds, 0 if the trace is empty
+     */
+    public double getStartTime() {
+        return blockCount == 0 ? 0.0 : firstTimes[0] / TraceWriter.TIME_SCALE;
+    }
+
+    /**
+     * Time of the last sample.
+     *
+     * @return time in seconds, 0 if the trace is empty
+     */
+    public double getEndTime() {
+        return blockCount == 0 ? 0.0 : lastTimes[blockCount - 1] / TraceWriter.TIME_SCALE;
+    }
+
+    /**
+     * Moves the cursor so next() returns the first sample at or after the time.
+     *
+     * @param time time in seconds
+     * @throws IOException if the block can't be read
+     */
+    public void seek(double time) throws IOException {
+        long micros = Math.round(time * TraceWriter.TIME_SCALE);
+        // first block that ends at or after the time
+        int low = 0;
+        int high = blockCount;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (lastTimes[middle] < micros) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        if (low == blockCount) {
+            seekToEnd();
+            return;
+        }
+        decode(low);
+        int sample = 0;
+        while (values[0][sample] < micros) {
+            sample++;
+        }
+        cursorBlock = low;
+        cursorSample = sample;
+    }
+
+    /**
+     * Moves the cursor before the first sample.
+     */
+    public void seekToStart() {
+        cursorBlock = 0;
+        cursorSample = 0;
+    }
+
+    /**
+     * Moves the cursor after the last sample, so previous() returns the last one.
+     */
+    public void seekToEnd() {
+        cursorBlock = blockCount;
+        cursorSample = 0;
+    }
+
+    /**
+     * Position of the cursor as a sample number.
+     *
+     * @return number of samples before the cursor
+     */
+    public long getPosition() {
+        return firstSamples[cursorBlock] + cursorSample;
+    }
+
+    public boolean hasNext() {
+        return cursorBlock < blockCount;
+    }
+
+    public boolean hasPrevious() {
+        return cursorBlock > 0 || cursorSample > 0;
+    }
+
+    /**
+     * Reads the sample after the cursor and moves the cursor past it.
+     *
+     * @param sample sample to fill
+     * @return false if the cursor was at the end
+     * @throws IOException if the block can't be read
+     */
+    public boolean next(Sample sample) throws IOException {
+        if (!hasNext()) {
+            return false;
+        }
+        decode(cursorBlock);
+        fill(cursorSample, sample);
+        if (++cursorSample == counts[cursorBlock]) {
+            cursorBlock++;
+            cursorSample = 0;
+        }
+        return true;
+    }
+
+    /**
+     * Reads the sample before the cursor and moves the cursor back over it.
+     *
+     * @param sample sample to fill
+     * @return false if the cursor was at the start
+     * @throws IOException if the block can't be read
+     */
+    public boolean previous(Sample sample) throws IOException {
+        if (!hasPrevious()) {
+            return false;
+        }
+        if (cursorSample == 0) {
+            cursorBlock--;
+            cursorSample = counts[cursorBlock];
+        }
+        cursorSample--;
+        decode(cursorBlock);
+        fill(cursorSample, sample);
+        return true;
+    }
+
+    /**
+     * Reads any sample without moving the cursor.
+     *
+     * @param index sample number, 0 is the first
+     * @param sample sample to fill
+     * @return the sample
+     * @throws IOException if the block can't be read
+     */
+    public Sample read(long index, Sample sample) throws IOException {
+        if (index < 0 || index >= sampleCount) {
+            throw new IndexOutOfBoundsException("Sample " + index + " of " + sampleCount);
+        }
+        // blocks are never empty, so an exact hit is the first sample of that block
+        int block = Arrays.binarySearch(firstSamples, 0, blockCount, index);
+        block = block >= 0 ? block : -block - 2;
+        decode(block);
+        fill((int) (index - firstSamples[block]), sample);
+        return sample;
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+        file.close();
+    }
+
+    private void fill(int i, Sample sample) {
+        sample.set(values[0][i] / TraceWriter.TIME_SCALE,
+                FixedPoint.toDouble(values[1][i]), FixedPoint.toDouble(values[2][i]),
+                FixedPoint.toDouble(values[3][i]), FixedPoint.toDouble(values[4][i]),
+                FixedPoint.toDouble(values[5][i]), FixedPoint.toDouble(values[6][i]),
+                FixedPoint.toDouble(values[7][i]), FixedPoint.toDouble(values[8][i]),
+                FixedPoint.toDouble(values[9][i]), FixedPoint.toDouble(values[10][i]));
+    }
+
+    /**
+     * Decodes a block in to the values, unless it is already there.
+     */
+    private void decode(int block) throws IOException {
+        if (block == decodedBlock) {
+            return;
+        }
+        buffer.clear();
+        buffer.limit(TraceWriter.BLOCK_HEADER_SIZE);
+        readFully(buffer, offsets[block]);
+        int payload = buffer.getInt(0);
+        int count = buffer.getInt(4);
+        buffer.clear();
+        buffer.limit(payload);
+        readFully(buffer, offsets[block] + TraceWriter.BLOCK_HEADER_SIZE);
+        buffer.flip();
+        for (int i = 0; i < count; i++) {
+            for (int field = 0; field < TraceWriter.FIELDS; field++) {
+                long[] column = values[field];
+                long value = TraceWriter.getVarint(buffer);
+                if (i > 0) {
+                    value += column[i - 1];
+                    if (TraceWriter.ORDER[field] == 2 && i > 1) {
+                        value += column[i - 1] - column[i - 2];
+                    }
+                }
+                column[i] = value;
+            }
+        }
+        decodedBlock = block;
+    }
+
+    /**
+     * Reads the index from the end of the file.
+     *
+     * @return false if the trace has no index (it wasn't closed)
+     */
+    private boolean readIndex(long blocksStart) throws IOException {
+        long size = channel.size();
+        if (size - blocksStart < TraceWriter.TRAILER_SIZE) {
+            return false;
+        }
+        ByteBuffer trailer = read(size - TraceWriter.TRAILER_SIZE, TraceWriter.TRAILER_SIZE);
+        long indexOffset = trailer.getLong();
+        int blocks = trailer.getInt();
+        trailer.getLong();
+        if (trailer.getInt() != TraceWriter.TRAILER_MAGIC
+                || indexOffset + (long) blocks * TraceWriter.INDEX_ENTRY_SIZE != size - TraceWriter.TRAILER_SIZE) {
+            return false;
+        }
+        ByteBuffer index = read(indexOffset, blocks * TraceWriter.INDEX_ENTRY_SIZE);
+        allocateIndex(blocks);
+        for (int i = 0; i < blocks; i++) {
+            offsets[i] = index.getLong();
+            firstTimes[i] = index.getLong();
+            lastTimes[i] = index.getLong();
+            counts[i] = index.getInt();
+        }
+        blockCount = blocks;
+        return true;
+    }
+
+    /**
+     * Walks the block headers to build the index of a trace that was cut short, a partly written last
+     * block is dropped.
+     */
+    private void rebuildIndex(long blocksStart) throws IOException {
+        long size = channel.size();
+        allocateIndex(16);
+        long offset = blocksStart;
+        while (offset + TraceWriter.BLOCK_HEADER_SIZE <= size) {
+            ByteBuffer header = read(offset, TraceWriter.BLOCK_HEADER_SIZE);
+            int payload = header.getInt();
+            int count = header.getInt();
+            if (payload <= 0 || count <= 0 || offset + TraceWriter.BLOCK_HEADER_SIZE + payload > size) {
+                break;
+            }
+            if (blockCount == offsets.length) {
+                offsets = Arrays.copyOf(offsets, blockCount * 2);
+                firstTimes = Arrays.copyOf(firstTimes, blockCount * 2);
+                lastTimes = Arrays.copyOf(lastTimes, blockCount * 2);
+                counts = Arrays.copyOf(counts, blockCount * 2);
+            }
+            offsets[blockCount] = offset;
+            firstTimes[blockCount] = header.getLong();
+            lastTimes[blockCount] = header.getLong();
+            counts[blockCount] = count;
+            blockCount++;
+            offset += TraceWriter.BLOCK_HEADER_SIZE + payload;
+        }
+    }
+
+    private void allocateIndex(int blocks) {
+        offsets = new long[blocks];
+        firstTimes = new long[blocks];
+        lastTimes = new long[blocks];
+        counts = new int[blocks];
+    }
+
+    private ByteBuffer read(long offset, int length) throws IOException {
+        ByteBuffer bytes = ByteBuffer.allocate(length);
+        readFully(bytes, offset);
+        bytes.flip();
+        return bytes;
+    }
+
+    private void readFully(ByteBuffer bytes, long offset) throws IOException {
+        while (bytes.hasRemaining()) {
+            int read = channel.read(bytes, offset);
+            if (read < 0) {
+                throw new IOException("Trace ended early");
+            }
+            offset += read;
+        }
+    }
+
+    private static String readString(ByteBuffer buffer, int length) {
+        byte[] bytes = new byte[length];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
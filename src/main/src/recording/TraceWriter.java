@@ -0,0 +1,265 @@
+package recording;
+
+import inputs.RobotInput;
+import robot.Robot;
+import utilities.FixedPoint;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Writes a compact trace of a run.  Each sample holds the same fields as a TrajectoryRecorder record but
+ * quantized: time to the microsecond and everything else to the thousandth, which is all the location
+ * and angle of the Simulator hold anyway.  Velocities and wheel rates lose anything past the thousandth.
+ * <p/>
+ * Samples are grouped in blocks that decode on their own.  The first sample of a block is stored whole,
+ * the rest as the change from the sample before (velocities, rotation and wheel rates) or the change in
+ * that change (time, location and angle, which move steadily), all as zigzag varints.  A steady run
+ * takes around 12 bytes a sample instead of 88.
+ * <p/>
+ * File layout, big endian:
+ * <ul>
+ * <li>header: magic "RSTC", version, samples per block, input mode and input description (each an int
+ * byte count then UTF-8)</li>
+ * <li>blocks: payload byte count, sample count, first and last time (microseconds) then the payload</li>
+ * <li>index: offset, first time, last time and sample count of every block</li>
+ * <li>trailer: index offset, block count, sample count, magic "RSTI"</li>
+ * </ul>
+ * The index is written by close().  A trace that was never closed can still be read, the reader
+ * rebuilds the index from the block headers.
+ * <p/>
+ * Created by CyberPuck on 2026-10-17.
+ */
+public class TraceWriter implements TrajectorySink, Closeable {
+    static int MAGIC = 0x52535443;
+    static int TRAILER_MAGIC = 0x52535449;
+    static int VERSION = 1;
+    // time, x, y, velocity x, velocity y, angle, rotation rate, four wheel rates
+    static int FIELDS = 11;
+    // time is held in microseconds
+    static double TIME_SCALE = 1000000.0;
+    // 2 stores the change in the change from the sample before, 1 the change
+    static int[] ORDER = {2, 2, 2, 1, 1, 2, 1, 1, 1, 1, 1};
+    static int DEFAULT_BLOCK_SAMPLES = 1024;
+    // payload byte count, sample count, first time, last time
+    static int BLOCK_HEADER_SIZE = 4 + 4 + 8 + 8;
+    // index offset, block count, sample count, magic
+    static int TRAILER_SIZE = 8 + 4 + 8 + 4;
+    // offset, first time, last time, sample count
+    static int INDEX_ENTRY_SIZE = 8 + 8 + 8 + 4;
+    // longest zigzag varint of a long
+    static int MAX_VARINT = 10;
+
+    private RandomAccessFile file;
+    private FileChannel channel;
+    private int blockSamples;
+    // quantized fields of the samples in the current block, [field][sample]
+    private long[][] block;
+    private int blockSize;
+    // encoded block, reused for every block
+    private ByteBuffer buffer;
+    // where the next block goes in the file
+    private long position;
+    // index of the blocks written so far
+    private long[] offsets = new long[16];
+    private long[] firstTimes = new long[16];
+    private long[] lastTimes = new long[16];
+    private int[] counts = new int[16];
+    private int blockCount;
+    private long sampleCount;
+    // scratch space for the wheel rates
+    private double[] wheelRates = new double[4];
+
+    public TraceWriter(File path, RobotInput input) throws IOException {
+        this(path, input, DEFAULT_BLOCK_SAMPLES);
+    }
+
+    /**
+     * Creates or overwrites the file and writes the header.
+     *
+     * @param path         file to write to
+     * @param input        input being simulated, described in the header
+     * @param blockSamples samples in each block, smaller blocks seek faster but compress less
+     * @throws IOException if the file can't be written
+     */
+    public TraceWriter(File path, RobotInput input, int blockSamples) throws IOException {
+        if (blockSamples < 1) {
+            throw new IllegalArgumentException("Block must hold at least one sample: " + blockSamples);
+        }
+        this.blockSamples = blockSamples;
+        block = new long[FIELDS][blockSamples];
+        buffer = ByteBuffer.allocate(Math.max(BLOCK_HEADER_SIZE + FIELDS * MAX_VARINT * blockSamples, TRAILER_SIZE));
+        byte[] mode = String.valueOf(input.getMode()).getBytes(StandardCharsets.UTF_8);
+        byte[] description = String.valueOf(input).getBytes(StandardCharsets.UTF_8);
+        ByteBuffer header = ByteBuffer.allocate(4 * 5 + mode.length + description.length);
+        header.putInt(MAGIC);
+        header.putInt(VERSION);
+        header.putInt(blockSamples);
+        header.putInt(mode.length);
+        header.put(mode);
+        header.putInt(description.length);
+        header.put(description);
+        header.flip();
+        file = new RandomAccessFile(path, "rw");
+        file.setLength(0);
+        channel = file.getChannel();
+        position = write(header, 0);
+    }
+
+    /**
+     * Adds the current state of the robot to the trace.
+     *
+     * @param time  simulated time in seconds, can't go backwards
+     * @param robot Robot to record
+     * @throws IOException if a full block can't be written
+     */
+    @Override
+    public void record(double time, Robot robot) throws IOException {
+        long micros = Math.round(time * TIME_SCALE);
+        long last = blockSize > 0 ? block[0][blockSize - 1] : (blockCount > 0 ? lastTimes[blockCount - 1] : Long.MIN_VALUE);
+        if (micros < last) {
+            throw new IllegalArgumentException("Time went backwards: " + time);
+        }
+        if (blockSize == blockSamples) {
+            writeBlock();
+        }
+        robot.getWheelRates(wheelRates);
+        int i = blockSize++;
+        block[0][i] = micros;
+        block[1][i] = robot.getQuantizedX();
+        block[2][i] = robot.getQuantizedY();
+        block[3][i] = FixedPoint.quantize(robot.getVelocityX());
+        block[4][i] = FixedPoint.quantize(robot.getVelocityY());
+        block[5][i] = robot.getQuantizedAngle();
+        block[6][i] = FixedPoint.quantize(robot.getRotationRate());
+        block[7][i] = FixedPoint.quantize(wheelRates[0]);
+        block[8][i] = FixedPoint.quantize(wheelRates[1]);
+        block[9][i] = FixedPoint.quantize(wheelRates[2]);
+        block[10][i] = FixedPoint.quantize(wheelRates[3]);
+        sampleCount++;
+    }
+
+    public long getSampleCount() {
+        return sampleCount;
+    }
+
+    /**
+     * Bytes written to the file so far, not counting the block being filled or the index.
+     *
+     * @return file length in bytes
+     */
+    public long getLength() {
+        return position;
+    }
+
+    /**
+     * Writes the last block, the index and the trailer.
+     */
+    @Override
+    public void close() throws IOException {
+        if (channel == null) {
+            return;
+        }
+        if (blockSize > 0) {
+            writeBlock();
+        }
+        long indexOffset = position;
+        ByteBuffer index = ByteBuffer.allocate(blockCount * INDEX_ENTRY_SIZE + TRAILER_SIZE);
+        for (int i = 0; i < blockCount; i++) {
+            index.putLong(offsets[i]);
+            index.putLong(firstTimes[i]);
+            index.putLong(lastTimes[i]);
+            index.putInt(counts[i]);
+        }
+        index.putLong(indexOffset);
+        index.putInt(blockCount);
+        index.putLong(sampleCount);
+        index.putInt(TRAILER_MAGIC);
+        index.flip();
+        position = write(index, position);
+        channel.force(true);
+        channel.close();
+        file.close();
+        channel = null;
+    }
+
+    /**
+     * Encodes the current block, writes it and adds it to the index.
+     */
+    private void writeBlock() throws IOException {
+        buffer.clear();
+        buffer.position(BLOCK_HEADER_SIZE);
+        for (int i = 0; i < blockSize; i++) {
+            for (int field = 0; field < FIELDS; field++) {
+                long[] values = block[field];
+                long value = values[i];
+                if (i > 0) {
+                    value -= values[i - 1];
+                    if (ORDER[field] == 2 && i > 1) {
+                        value -= values[i - 1] - values[i - 2];
+                    }
+                }
+                putVarint(buffer, value);
+            }
+        }
+        int payload = buffer.position() - BLOCK_HEADER_SIZE;
+        buffer.putInt(0, payload);
+        buffer.putInt(4, blockSize);
+        buffer.putLong(8, block[0][0]);
+        buffer.putLong(16, block[0][blockSize - 1]);
+        buffer.flip();
+        if (blockCount == offsets.length) {
+            offsets = Arrays.copyOf(offsets, blockCount * 2);
+            firstTimes = Arrays.copyOf(firstTimes, blockCount * 2);
+            lastTimes = Arrays.copyOf(lastTimes, blockCount * 2);
+            counts = Arrays.copyOf(counts, blockCount * 2);
+        }
+        offsets[blockCount] = position;
+        firstTimes[blockCount] = block[0][0];
+        lastTimes[blockCount] = block[0][blockSize - 1];
+        counts[blockCount] = blockSize;
+        blockCount++;
+        position = write(buffer, position);
+        blockSize = 0;
+    }
+
+    private long write(ByteBuffer bytes, long offset) throws IOException {
+        while (bytes.hasRemaining()) {
+            offset += channel.write(bytes, offset);
+        }
+        return offset;
+    }
+
+    /**
+     * Writes a zigzag varint, small values of either sign take a single byte.
+     */
+    static void putVarint(ByteBuffer buffer, long value) {
+        long zigzag = (value << 1) ^ (value >> 63);
+        while ((zigzag & ~0x7FL) != 0) {
+            buffer.put((byte) ((zigzag & 0x7F) | 0x80));
+            zigzag >>>= 7;
+        }
+        buffer.put((byte) zigzag);
+    }
+
+    /**
+     * Reads a zigzag varint written by putVarint.
+     */
+    static long getVarint(ByteBuffer buffer) {
+        long zigzag = 0;
+        int shift = 0;
+        byte b;
+        do {
+            b = buffer.get();
+            zigzag |= (long) (b & 0x7F) << shift;
+            shift += 7;
+        } while (b < 0);
+        return (zigzag >>> 1) ^ -(zigzag & 1);
+    }
+}
@@ -0,0 +1,126 @@
+package recording;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+
+/**
+ * Random access to a file written by TrajectoryRecorder.  Records are read straight from memory
+ * mapped regions in to a Sample, any record can be read in any order.
+ * <p/>
+ * Created by CyberPuck on 2026-10-17.
+ */
+public class TrajectoryReader implements TrajectorySource {
+    private RandomAccessFile file;
+    private FileChannel channel;
+    private String inputMode;
+    private String inputDescription;
+    private int headerSize;
+    private long count;
+    // records in a mapped region and the regions, mapped the first time they are read
+    private int recordsPerRegion;
+    private MappedByteBuffer[] regions;
+
+    /**
+     * Opens a recording and reads its header.
+     *
+     * @param path recording to read
+     * @throws IOException if the file can't be read or isn't a recording
+     */
+    public TrajectoryReader(File path) throws IOException {
+        file = new RandomAccessFile(path, "r");
+        channel = file.getChannel();
+        MappedByteBuffer header = channel.map(FileChannel.MapMode.READ_ONLY, 0, Math.min(channel.size(), 4096));
+        if (header.remaining() < TrajectoryRecorder.COUNT_OFFSET + 8 || header.getInt() != TrajectoryRecorder.MAGIC) {
+            close();
+            throw new IOException("Not a trajectory recording: " + path);
+        }
+        int version = header.getInt();
+        int recordSize = header.getInt();
+        if (version != TrajectoryRecorder.VERSION || recordSize != TrajectoryRecorder.RECORD_SIZE) {
+            close();
+            throw new IOException("Unsupported recording version " + version + ": " + path);
+        }
+        headerSize = header.getInt();
+        if (headerSize > header.capacity()) {
+            header = channel.map(FileChannel.MapMode.READ_ONLY, 0, headerSize);
+            header.position(TrajectoryRecorder.COUNT_OFFSET);
+        }
+        count = header.getLong();
+        inputMode = TrajectoryRecorder.readString(header);
+        inputDescription = TrajectoryRecorder.readString(header);
+        // a file cut short only has its whole records
+        count = Math.min(count, (channel.size() - headerSize) / recordSize);
+        recordsPerRegion = TrajectoryRecorder.REGION_SIZE / recordSize;
+        regions = new MappedByteBuffer[(int) ((count + recordsPerRegion - 1) / recordsPerRegion)];
+    }
+
+    public String getInputMode() {
+        return inputMode;
+    }
+
+    /**
+     * The toString() of the input that was recorded.
+     *
+     * @return input description
+     */
+    public String getInputDescription() {
+        return inputDescription;
+    }
+
+    public long size() {
+        return count;
+    }
+
+    /**
+     * Reads a record.
+     *
+     * @param index  record to read, 0 is the first
+     * @param sample sample to fill
+     * @return the sample
+     * @throws IOException if the region can't be mapped
+     */
+    public Sample read(long index, Sample sample) throws IOException {
+        if (index < 0 || index >= count) {
+            throw new IndexOutOfBoundsException("Record " + index + " of " + count);
+        }
+        MappedByteBuffer region = region((int) (index / recordsPerRegion));
+        int offset = (int) (index % recordsPerRegion) * TrajectoryRecorder.RECORD_SIZE;
+        sample.set(region.getDouble(offset), region.getDouble(offset + 8), region.getDouble(offset + 16),
+                region.getDouble(offset + 24), region.getDouble(offset + 32), region.getDouble(offset + 40),
+                region.getDouble(offset + 48), region.getDouble(offset + 56), region.getDouble(offset + 64),
+                region.getDouble(offset + 72), region.getDouble(offset + 80));
+        return sample;
+    }
+
+    /**
+     * Time of a record without reading the rest of it, records are in time order so this can be
+     * used to binary search.
+     *
+     * @param index record to read
+     * @return time in seconds
+     * @throws IOException if the region can't be mapped
+     */
+    public double getTime(long index) throws IOException {
+        MappedByteBuffer region = region((int) (index / recordsPerRegion));
+        return region.getDouble((int) (index % recordsPerRegion) * TrajectoryRecorder.RECORD_SIZE);
+    }
+
+    private MappedByteBuffer region(int index) throws IOException {
+        if (regions[index] == null) {
+            long start = headerSize + (long) index * recordsPerRegion * TrajectoryRecorder.RECORD_SIZE;
+            long length = Math.min((long) recordsPerRegion, count - (long) index * recordsPerRegion) * TrajectoryRecorder.RECORD_SIZE;
+            regions[index] = channel.map(FileChannel.MapMode.READ_ONLY, start, length);
+        }
+        return regions[index];
+    }
+
+    @Override
+    public void close() throws IOException {
+        regions = null;
+        channel.close();
+        file.close();
+    }
+}
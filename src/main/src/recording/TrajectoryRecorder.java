@@ -0,0 +1,153 @@
+package recording;
+
+import inputs.RobotInput;
+import robot.Robot;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Appends the robot state every step to a binary file through memory mapped regions.
+ * <p/>
+ * File layout, big endian:
+ * <ul>
+ * <li>header: magic "RSTR", version, record size, header size, record count (long), input mode and
+ * input description (each an int byte count then UTF-8), padded to 8 bytes</li>
+ * <li>records of RECORD_SIZE bytes: time, x, y, velocity x, velocity y, angle, rotation rate and the
+ * four wheel rates, all doubles</li>
+ * </ul>
+ * The record count in the header is updated with every record, so a crashed run can still be read up to
+ * its last record.  Recording only writes to the mapped buffers, the only allocation is mapping the next
+ * region every REGION_SIZE bytes.
+ * <p/>
+ * Created by CyberPuck on 2026-10-17.
+ */
+public class TrajectoryRecorder implements TrajectorySink, Closeable {
+    static int MAGIC = 0x52535452;
+    static int VERSION = 1;
+    // doubles in a record and bytes in a record
+    static int FIELDS = 11;
+    static int RECORD_SIZE = FIELDS * 8;
+    // offset of the record count in the header
+    static int COUNT_OFFSET = 16;
+    // bytes mapped at a time, a multiple of the record size
+    static int REGION_SIZE = (8 * 1024 * 1024 / RECORD_SIZE) * RECORD_SIZE;
+
+    private RandomAccessFile file;
+    private FileChannel channel;
+    // mapped header, only the record count changes
+    private MappedByteBuffer header;
+    private int headerSize;
+    // region the next record goes in to
+    private MappedByteBuffer region;
+    private long regionStart;
+    private long count;
+    // scratch space for the wheel rates
+    private double[] wheelRates = new double[4];
+
+    /**
+     * Creates or overwrites the file and writes the header.
+     *
+     * @param path  file to record to
+     * @param input input being simulated, described in the header
+     * @throws IOException if the file can't be written
+     */
+    public TrajectoryRecorder(File path, RobotInput input) throws IOException {
+        byte[] mode = String.valueOf(input.getMode()).getBytes(StandardCharsets.UTF_8);
+        byte[] description = String.valueOf(input).getBytes(StandardCharsets.UTF_8);
+        headerSize = (COUNT_OFFSET + 8 + 4 + mode.length + 4 + description.length + 7) / 8 * 8;
+        file = new RandomAccessFile(path, "rw");
+        file.setLength(0);
+        channel = file.getChannel();
+        header = channel.map(FileChannel.MapMode.READ_WRITE, 0, headerSize);
+        header.putInt(MAGIC);
+        header.putInt(VERSION);
+        header.putInt(RECORD_SIZE);
+        header.putInt(headerSize);
+        header.putLong(0L);
+        header.putInt(mode.length);
+        header.put(mode);
+        header.putInt(description.length);
+        header.put(description);
+        regionStart = headerSize;
+        region = channel.map(FileChannel.MapMode.READ_WRITE, regionStart, REGION_SIZE);
+    }
+
+    /**
+     * Appends the current state of the robot.
+     *
+     * @param time  simulated time in seconds
+     * @param robot Robot to record
+     * @throws IOException if the next region can't be mapped
+     */
+    @Override
+    public void record(double time, Robot robot) throws IOException {
+        if (!region.hasRemaining()) {
+            regionStart += REGION_SIZE;
+            region = channel.map(FileChannel.MapMode.READ_WRITE, regionStart, REGION_SIZE);
+        }
+        robot.getWheelRates(wheelRates);
+        region.putDouble(time);
+        region.putDouble(robot.getX());
+        region.putDouble(robot.getY());
+        region.putDouble(robot.getVelocityX());
+        region.putDouble(robot.getVelocityY());
+        region.putDouble(robot.getAngle());
+        region.putDouble(robot.getRotationRate());
+        region.putDouble(wheelRates[0]);
+        region.putDouble(wheelRates[1]);
+        region.putDouble(wheelRates[2]);
+        region.putDouble(wheelRates[3]);
+        count++;
+        header.putLong(COUNT_OFFSET, count);
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    /**
+     * Flushes the records to disk and trims the unused end of the last region.  Trimming fails on
+     * systems that don't allow it while the regions are still mapped (Windows), the file then keeps its
+     * padding, which is harmless as readers go by the count in the header.
+     */
+    @Override
+    public void close() throws IOException {
+        if (channel == null) {
+            return;
+        }
+        try {
+            header.force();
+            region.force();
+            header = null;
+            region = null;
+            try {
+                channel.truncate(headerSize + count * RECORD_SIZE);
+            } catch (IOException e) {
+                // still mapped, leave the padding
+            }
+        } finally {
+            try {
+                channel.close();
+            } finally {
+                file.close();
+                channel = null;
+            }
+        }
+    }
+
+    /**
+     * Reads a length prefixed UTF-8 string from a header.
+     */
+    static String readString(ByteBuffer buffer) {
+        byte[] bytes = new byte[buffer.getInt()];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,21 @@
+package recording;
+
+import robot.Robot;
+
+import java.io.IOException;
+
+/**
+ * Something that keeps the robot state of a run, step by step.
+ * <p/>
+ * Created by CyberPuck on 2026-10-17.
+ */
+public interface TrajectorySink {
+    /**
+     * Appends the current state of the robot.  Calls come in time order.
+     *
+     * @param time  simulated time in seconds
+     * @param robot Robot to record
+     * @throws IOException if the state can't be written
+     */
+    void record(double time, Robot robot) throws IOException;
+}
@@ -0,0 +1,42 @@
+package recording;
+
+import java.io.Closeable;
+import java.io.IOException;
+
+/**
+ * Recorded run that can be read back sample by sample, in any order.  Samples are in time order.
+ * <p/>
+ * Created by CyberPuck on 2026-10-17.
+ */
+public interface TrajectorySource extends Closeable {
+    /**
+     * Number of samples in the run.
+     *
+     * @return sample count
+     */
+    long size();
+
+    /**
+     * Reads a sample.
+     *
+     * @param index  sample number, 0 is the first
+     * @param sample sample to fill
+     * @return the sample
+     * @throws IOException if the sample can't be read
+     */
+    Sample read(long index, Sample sample) throws IOException;
+
+    /**
+     * Name of the input mode that drove the run.
+     *
+     * @return input mode
+     */
+    String getInputMode();
+
+    /**
+     * The toString() of the input that drove the run.
+     *
+     * @return input description
+     */
+    String getInputDescription();
+}
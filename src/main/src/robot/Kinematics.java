@@ -118,4 +118,79 @@ public class Kinematics {
         double wheelFour = (1 / radius) * (vX + vY + rotation * (width + length));
         return wheelFour;
     }
+
+    /**
+     * Batch version of the four wheel rotation equations over a range of samples, sample i is
+     * (vX[i], vY[i], rotation[i]).  Gives exactly the same rates as the single wheel methods.
+     * <p/>
+     * Written as plain loops over primitive arrays with no calls or branches inside, which HotSpot's
+     * superword pass turns in to SIMD instructions.
+     *
+     * @param radius     radius of the wheels
+     * @param width      x-axis distance between wheel and center
+     * @param length     x-axis distance between wheel and center
+     * @param vX         x-axis velocities of the robot
+     * @param vY         y-axis velocities of the robot
+     * @param rotation   rotation rates of the robot
+     * @param wheelOne   upper left wheel rates, output
+     * @param wheelTwo   upper right wheel rates, output
+     * @param wheelThree lower left wheel rates, output
+     * @param wheelFour  lower right wheel rates, output
+     * @param start      first sample to convert
+     * @param end        one past the last sample to convert
+     */
+    public static void calculateWheelRotations(double radius, double width, double length,
+                                               double[] vX, double[] vY, double[] rotation,
+                                               double[] wheelOne, double[] wheelTwo, double[] wheelThree, double[] wheelFour,
+                                               int start, int end) {
+        double inverse = 1 / radius;
+        double span = width + length;
+        for (int i = start; i < end; i++) {
+            wheelOne[i] = inverse * (vX[i] + vY[i] - rotation[i] * span);
+        }
+        for (int i = start; i < end; i++) {
+            wheelTwo[i] = inverse * (-vX[i] + vY[i] + rotation[i] * span);
+        }
+        for (int i = start; i < end; i++) {
+            wheelThree[i] = inverse * (-vX[i] + vY[i] - rotation[i] * span);
+        }
+        for (int i = start; i < end; i++) {
+            wheelFour[i] = inverse * (vX[i] + vY[i] + rotation[i] * span);
+        }
+    }
+
+    /**
+     * Batch version of the velocity and rotation equations over a range of samples, sample i is
+     * (rateOne[i], rateTwo[i], rateThree[i], rateFour[i]).  Gives exactly the same values as
+     * calculateVelocityX, calculateVelocityY and calculateVehicleRotation.
+     *
+     * @param radius    radius of the wheels
+     * @param width     x-axis distance between wheel and center
+     * @param length    x-axis distance between wheel and center
+     * @param rateOne   upper left wheel rates
+     * @param rateTwo   upper right wheel rates
+     * @param rateThree lower left wheel rates
+     * @param rateFour  lower right wheel rates
+     * @param vX        x-axis velocities of the robot, output
+     * @param vY        y-axis velocities of the robot, output
+     * @param rotation  rotation rates of the robot, output
+     * @param start     first sample to convert
+     * @param end       one past the last sample to convert
+     */
+    public static void calculateBodyVelocities(double radius, double width, double length,
+                                               double[] rateOne, double[] rateTwo, double[] rateThree, double[] rateFour,
+                                               double[] vX, double[] vY, double[] rotation,
+                                               int start, int end) {
+        double quarter = radius / 4;
+        double turn = radius / (4 * (width + length));
+        for (int i = start; i < end; i++) {
+            vX[i] = quarter * (rateOne[i] - rateTwo[i] - rateThree[i] + rateFour[i]);
+        }
+        for (int i = start; i < end; i++) {
+            vY[i] = quarter * (rateOne[i] + rateTwo[i] + rateThree[i] + rateFour[i]);
+        }
+        for (int i = start; i < end; i++) {
+            rotation[i] = turn * (-rateOne[i] + rateTwo[i] - rateThree[i] + rateFour[i]);
+        }
+    }
 }
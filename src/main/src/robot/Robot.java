@@ -1,5 +1,6 @@
 package robot;
 
+import utilities.FixedPoint;
 import utilities.Point;
 
 /**
@@ -9,13 +10,16 @@ import utilities.Point;
  * Created by CyberPuck on 2016-02-28.
  */
 public class Robot {
-    private Point location;
-    // velocity is held as a point since it has an X and Y component, in feet
-    private Point velocity;
+    // location in the GRF in millifeet, quantized so runs are repeatable to the bit
+    private long x;
+    private long y;
+    // velocity components in the robot reference frame, in feet
+    private double velocityX;
+    private double velocityY;
     // rotation rate of the vehicle, angle per second
     private double rotationRate;
-    // current rotation of the robot relative to the global frame
-    private double angle;
+    // current rotation of the robot relative to the global frame, in millidegrees
+    private long angle;
     // radius of the wheels, in feet
     private double radius;
     // height is the x-axis component between wheels and center in feet
@@ -24,27 +28,92 @@ public class Robot {
     private static double LENGTH = 2.0;
 
     public Robot(double radius) {
-        location = new Point(0, 0);
-        velocity = new Point(0, 0);
+        x = 0;
+        y = 0;
+        velocityX = 0;
+        velocityY = 0;
         rotationRate = 0;
         angle = 0;
         this.radius = radius;
     }
 
+    /**
+     * View of the current location, a new point is created on every call so prefer
+     * {@link #getX()} and {@link #getY()} in any per frame code.
+     *
+     * @return copy of the location in the GRF
+     */
     public Point getLocation() {
-        return location;
+        return new Point(getX(), getY());
     }
 
     public void setLocation(Point location) {
-        this.location = location;
+        setLocation(location.getX(), location.getY());
     }
 
+    /**
+     * Sets the location, trimmed to the thousandth of a foot.
+     *
+     * @param x x location in feet
+     * @param y y location in feet
+     */
+    public void setLocation(double x, double y) {
+        this.x = FixedPoint.quantize(x);
+        this.y = FixedPoint.quantize(y);
+    }
+
+    public double getX() {
+        return FixedPoint.toDouble(x);
+    }
+
+    public double getY() {
+        return FixedPoint.toDouble(y);
+    }
+
+    /**
+     * Sets the location directly in fixed point.
+     *
+     * @param x x location in millifeet
+     * @param y y location in millifeet
+     */
+    public void setQuantizedLocation(long x, long y) {
+        this.x = x;
+        this.y = y;
+    }
+
+    public long getQuantizedX() {
+        return x;
+    }
+
+    public long getQuantizedY() {
+        return y;
+    }
+
+    /**
+     * View of the current velocity, a new point is created on every call so prefer
+     * {@link #getVelocityX()} and {@link #getVelocityY()} in any per frame code.
+     *
+     * @return copy of the velocity in the robot reference frame
+     */
     public Point getVelocity() {
-        return velocity;
+        return new Point(velocityX, velocityY);
     }
 
     public void setVelocity(Point velocity) {
-        this.velocity = velocity;
+        setVelocity(velocity.getX(), velocity.getY());
+    }
+
+    public void setVelocity(double velocityX, double velocityY) {
+        this.velocityX = velocityX;
+        this.velocityY = velocityY;
+    }
+
+    public double getVelocityX() {
+        return velocityX;
+    }
+
+    public double getVelocityY() {
+        return velocityY;
     }
 
     public double getRadius() {
@@ -56,10 +125,23 @@ public class Robot {
     }
 
     public double getAngle() {
-        return angle;
+        return FixedPoint.toDouble(angle);
     }
 
+    /**
+     * Sets the angle, trimmed to the thousandth of a degree.
+     *
+     * @param angle angle relative to the global frame in degrees
+     */
     public void setAngle(double angle) {
+        this.angle = FixedPoint.quantize(angle);
+    }
+
+    public long getQuantizedAngle() {
+        return angle;
+    }
+
+    public void setQuantizedAngle(long angle) {
         this.angle = angle;
     }
 
@@ -78,19 +160,46 @@ public class Robot {
      */
     public double[] getWheelRates() {
         double wheels[] = {0, 0, 0, 0};
-        wheels[0] = Kinematics.calculateWheelOneRotation(radius, HEIGHT, LENGTH, velocity.getY(), velocity.getX(), rotationRate);
-        wheels[1] = Kinematics.calculateWheelTwoRotation(radius, HEIGHT, LENGTH, velocity.getY(), velocity.getX(), rotationRate);
-        wheels[2] = Kinematics.calculateWheelThreeRotation(radius, HEIGHT, LENGTH, velocity.getY(), velocity.getX(), rotationRate);
-        wheels[3] = Kinematics.calculateWheelFourRotation(radius, HEIGHT, LENGTH, velocity.getY(), velocity.getX(), rotationRate);
+        wheels[0] = Kinematics.calculateWheelOneRotation(radius, HEIGHT, LENGTH, velocityY, velocityX, rotationRate);
+        wheels[1] = Kinematics.calculateWheelTwoRotation(radius, HEIGHT, LENGTH, velocityY, velocityX, rotationRate);
+        wheels[2] = Kinematics.calculateWheelThreeRotation(radius, HEIGHT, LENGTH, velocityY, velocityX, rotationRate);
+        wheels[3] = Kinematics.calculateWheelFourRotation(radius, HEIGHT, LENGTH, velocityY, velocityX, rotationRate);
+        return wheels;
+    }
+
+    /**
+     * Fills the wheel rates in to an existing array instead of allocating one.
+     *
+     * @param wheels array of at least four rates, upper left, upper right, lower left, lower right
+     * @return the wheels array
+     */
+    public double[] getWheelRates(double[] wheels) {
+        wheels[0] = Kinematics.calculateWheelOneRotation(radius, HEIGHT, LENGTH, velocityY, velocityX, rotationRate);
+        wheels[1] = Kinematics.calculateWheelTwoRotation(radius, HEIGHT, LENGTH, velocityY, velocityX, rotationRate);
+        wheels[2] = Kinematics.calculateWheelThreeRotation(radius, HEIGHT, LENGTH, velocityY, velocityX, rotationRate);
+        wheels[3] = Kinematics.calculateWheelFourRotation(radius, HEIGHT, LENGTH, velocityY, velocityX, rotationRate);
         return wheels;
     }
 
+    /**
+     * Finds the fastest spinning wheel without allocating the wheel rate array.
+     *
+     * @return largest absolute wheel rate
+     */
+    public double getMaxWheelRate() {
+        double max = Math.abs(Kinematics.calculateWheelOneRotation(radius, HEIGHT, LENGTH, velocityY, velocityX, rotationRate));
+        max = Math.max(max, Math.abs(Kinematics.calculateWheelTwoRotation(radius, HEIGHT, LENGTH, velocityY, velocityX, rotationRate)));
+        max = Math.max(max, Math.abs(Kinematics.calculateWheelThreeRotation(radius, HEIGHT, LENGTH, velocityY, velocityX, rotationRate)));
+        max = Math.max(max, Math.abs(Kinematics.calculateWheelFourRotation(radius, HEIGHT, LENGTH, velocityY, velocityX, rotationRate)));
+        return max;
+    }
+
     @Override
     public String toString() {
         return "Robot{" +
-                "location=" + location +
-                ", velocity=" + velocity +
-                ", angle=" + angle +
+                "location=" + getLocation() +
+                ", velocity=" + getVelocity() +
+                ", angle=" + getAngle() +
                 ", radius=" + radius +
                 '}';
     }
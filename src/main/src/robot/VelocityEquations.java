@@ -1,7 +1,9 @@
 package robot;
 
+import utilities.FastTrig;
 import utilities.Point;
 import utilities.Position;
+import utilities.SinCos;
 
 /**
  * Class to handle converting raw velocity and angle and calculate the correct rotation
@@ -19,16 +21,63 @@ public class VelocityEquations {
      * @return Current position based on the inertial reference frame
      */
     public static Point convertYawToGlobalFrame(Position robotPos) {
-        Point pos = new Point(robotPos.getPosition().getX(), robotPos.getPosition().getY());
-        // convert angle to radians
-        double gamma = Math.toRadians(robotPos.getAngle());
-        double robotX = robotPos.getPosition().getX();
-        double robotY = robotPos.getPosition().getY();
-        pos.setX((Math.cos(gamma) * robotX) - (Math.sin(gamma) * robotY));
-        pos.setY((Math.sin(gamma) * robotX) + (Math.cos(gamma) * robotY));
+        Point pos = new Point();
+        convertYawToGlobalFrame(robotPos.getPosition().getX(), robotPos.getPosition().getY(), robotPos.getAngle(), pos);
         return pos;
     }
 
+    /**
+     * Allocation free version of {@link #convertYawToGlobalFrame(Position)}, the result is written
+     * into the given point so the caller can reuse it every frame.
+     *
+     * @param robotX x component based on the robot reference frame
+     * @param robotY y component based on the robot reference frame
+     * @param angle  yaw of the robot relative to the global frame, in degrees
+     * @param global point to store the components based on the inertial reference frame
+     */
+    public static void convertYawToGlobalFrame(double robotX, double robotY, double angle, Point global) {
+        double cos = FastTrig.cos(angle);
+        double sin = FastTrig.sin(angle);
+        global.setX((cos * robotX) - (sin * robotY));
+        global.setY((sin * robotX) + (cos * robotY));
+    }
+
+    /**
+     * Same as {@link #convertYawToGlobalFrame(double, double, double, Point)} with the sin and cos of the
+     * yaw already worked out, so a caller holding the same heading for many frames only does the trig once.
+     *
+     * @param robotX x component based on the robot reference frame
+     * @param robotY y component based on the robot reference frame
+     * @param yaw    sin and cos of the yaw of the robot relative to the global frame
+     * @param global point to store the components based on the inertial reference frame
+     */
+    public static void convertYawToGlobalFrame(double robotX, double robotY, SinCos yaw, Point global) {
+        global.setX((yaw.getCos() * robotX) - (yaw.getSin() * robotY));
+        global.setY((yaw.getSin() * robotX) + (yaw.getCos() * robotY));
+    }
+
+    /**
+     * Array version of {@link #convertYawToGlobalFrame(double, double, double, Point)}, converts count
+     * robot frame vectors in one pass.
+     *
+     * @param robotX  x components based on the robot reference frame
+     * @param robotY  y components based on the robot reference frame
+     * @param angle   yaw of each robot relative to the global frame, in degrees
+     * @param globalX x components based on the inertial reference frame
+     * @param globalY y components based on the inertial reference frame
+     * @param start   first index to convert
+     * @param end     index after the last one to convert
+     */
+    public static void convertYawToGlobalFrame(double[] robotX, double[] robotY, double[] angle,
+                                               double[] globalX, double[] globalY, int start, int end) {
+        for (int i = start; i < end; i++) {
+            double cos = FastTrig.cos(angle[i]);
+            double sin = FastTrig.sin(angle[i]);
+            globalX[i] = (cos * robotX[i]) - (sin * robotY[i]);
+            globalY[i] = (sin * robotX[i]) + (cos * robotY[i]);
+        }
+    }
+
     /**
      * Given the heading and speed (total velocity) of the robot calculate the x, y component velocities.
      *
@@ -37,8 +86,8 @@ public class VelocityEquations {
      * @return Point representing the X and Y components of the velocity
      */
     public static Point convertSpeedHeadingToVelocity(double speed, double heading) {
-        double xVel = speed * Math.cos(Math.toRadians(heading));
-        double yVel = speed * Math.sin(Math.toRadians(heading));
+        double xVel = speed * FastTrig.cos(heading);
+        double yVel = speed * FastTrig.sin(heading);
         return new Point(xVel, yVel);
     }
 }
@@ -0,0 +1,193 @@
+package scenario;
+
+import robot.Robot;
+import simulator.BatchResult;
+
+/**
+ * Writes scenario results as single line JSON objects.
+ * <p/>
+ * Created by CyberPuck on 2026-10-17.
+ */
+public class JsonWriter {
+
+    /**
+     * Formats a result as one line of JSON.
+     *
+     * @param result result to write
+     * @return JSON object without a trailing new line
+     */
+    public static String toJson(ScenarioResult result) {
+        StringBuilder json = new StringBuilder(256);
+        appendResult(json, result);
+        return json.toString();
+    }
+
+    /**
+     * Formats an error as one line of JSON.
+     *
+     * @param name    name of the scenario that failed, can be null
+     * @param message what went wrong
+     * @return JSON object without a trailing new line
+     */
+    public static String toJson(String name, String message) {
+        StringBuilder json = new StringBuilder(128);
+        json.append("{\"name\":");
+        appendString(json, name);
+        json.append(",\"error\":");
+        appendString(json, message);
+        json.append('}');
+        return json.toString();
+    }
+
+    /**
+     * Formats everything about a result except its name, the JSON fields without the surrounding braces.
+     * Same runs under different names have the same fields, so these are what gets cached.
+     *
+     * @param result result to write
+     * @return JSON fields
+     */
+    public static String toFields(ScenarioResult result) {
+        StringBuilder json = new StringBuilder(256);
+        appendFields(json, result);
+        return json.toString();
+    }
+
+    /**
+     * Puts a name in front of fields from toFields to make a whole JSON object.  A cached result is
+     * flagged, its wallTime is how long the run that filled the cache took, not this request.
+     *
+     * @param name   scenario name, can be null
+     * @param fields JSON fields
+     * @param cached fields came from the cache?
+     * @return JSON object without a trailing new line
+     */
+    public static String withName(String name, String fields, boolean cached) {
+        StringBuilder json = new StringBuilder(fields.length() + 48);
+        json.append("{\"name\":");
+        appendString(json, name);
+        json.append(",\"cached\":").append(cached);
+        json.append(',').append(fields).append('}');
+        return json.toString();
+    }
+
+    /**
+     * Appends a result as a JSON object.
+     *
+     * @param json   builder to append to
+     * @param result result to write
+     */
+    public static void appendResult(StringBuilder json, ScenarioResult result) {
+        json.append("{\"name\":");
+        appendString(json, result.getScenario().getName());
+        json.append(',');
+        appendFields(json, result);
+        json.append('}');
+    }
+
+    private static void appendFields(StringBuilder json, ScenarioResult result) {
+        BatchResult batch = result.getResult();
+        Robot robot = batch.getRobot();
+        json.append("\"mode\":");
+        appendString(json, result.getScenario().getInput().getMode().toString());
+        json.append(",\"atGoal\":").append(batch.isAtGoal());
+        json.append(",\"enoughTime\":").append(batch.isEnoughTime());
+        json.append(",\"simulatedTime\":");
+        appendNumber(json, batch.getSimulatedTime());
+        json.append(",\"steps\":").append(batch.getSteps());
+        json.append(",\"wallTime\":").append(batch.getWallTime());
+        json.append(",\"maxWheelRate\":");
+        appendNumber(json, batch.getMaxWheelRate());
+        json.append(",\"final\":{\"x\":");
+        appendNumber(json, robot.getX());
+        json.append(",\"y\":");
+        appendNumber(json, robot.getY());
+        json.append(",\"angle\":");
+        appendNumber(json, robot.getAngle());
+        json.append(",\"velocityX\":");
+        appendNumber(json, robot.getVelocityX());
+        json.append(",\"velocityY\":");
+        appendNumber(json, robot.getVelocityY());
+        json.append(",\"rotationRate\":");
+        appendNumber(json, robot.getRotationRate());
+        json.append('}');
+        TrajectoryCollector trajectory = result.getTrajectory();
+        if (trajectory != null) {
+            json.append(",\"trajectory\":{\"stride\":").append(trajectory.getStride());
+            json.append(",\"time\":[");
+            for (int i = 0; i < trajectory.size(); i++) {
+                appendSeparator(json, i);
+                appendNumber(json, trajectory.getTime(i));
+            }
+            json.append("],\"x\":[");
+            for (int i = 0; i < trajectory.size(); i++) {
+                appendSeparator(json, i);
+                appendNumber(json, trajectory.getX(i));
+            }
+            json.append("],\"y\":[");
+            for (int i = 0; i < trajectory.size(); i++) {
+                appendSeparator(json, i);
+                appendNumber(json, trajectory.getY(i));
+            }
+            json.append("],\"angle\":[");
+            for (int i = 0; i < trajectory.size(); i++) {
+                appendSeparator(json, i);
+                appendNumber(json, trajectory.getAngle(i));
+            }
+            json.append("]}");
+        }
+    }
+
+    private static void appendSeparator(StringBuilder json, int index) {
+        if (index > 0) {
+            json.append(',');
+        }
+    }
+
+    /**
+     * JSON has no NaN or infinity, they are written as null.
+     */
+    private static void appendNumber(StringBuilder json, double value) {
+        if (Double.isNaN(value) || Double.isInfinite(value)) {
+            json.append("null");
+        } else if (value == Math.rint(value) && Math.abs(value) < 1e15) {
+            json.append((long) value);
+        } else {
+            json.append(value);
+        }
+    }
+
+    private static void appendString(StringBuilder json, String value) {
+        if (value == null) {
+            json.append("null");
+            return;
+        }
+        json.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '"':
+                    json.append("\\\"");
+                    break;
+                case '\\':
+                    json.append("\\\\");
+                    break;
+                case '\n':
+                    json.append("\\n");
+                    break;
+                case '\r':
+                    json.append("\\r");
+                    break;
+                case '\t':
+                    json.append("\\t");
+                    break;
+                default:
+                    if (c < 0x20) {
+                        json.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        json.append(c);
+                    }
+            }
+        }
+        json.append('"');
+    }
+}
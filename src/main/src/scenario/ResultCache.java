@@ -0,0 +1,196 @@
+package scenario;
+
+import simulator.Simulator;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.AbstractMap;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Results of earlier runs, keyed by ScenarioKey.  The most recently used results are kept in memory up
+ * to a byte limit, the least recently used ones are spilled to a directory and read back from there
+ * when asked for again.  Safe to share between threads, and several processes can share a directory.
+ * <p/>
+ * The files live in a sub directory named after Simulator.MODEL_VERSION and the version is part of every
+ * key, so results from an older model are never served.
+ * <p/>
+ * Created by CyberPuck on 2026-10-17.
+ */
+public class ResultCache {
+    // rough bytes for the map entry, key string and array headers of a cached result
+    private static int ENTRY_OVERHEAD = 64 + 2 * 64;
+
+    private long maxBytes;
+    private long bytes;
+    // directory results are spilled to, null to only keep them in memory
+    private File directory;
+    // access ordered, the eldest entry is the least recently used
+    private LinkedHashMap<String, byte[]> entries = new LinkedHashMap<>(64, 0.75f, true);
+    private long hits;
+    private long diskHits;
+    private long misses;
+
+    /**
+     * Creates a cache.
+     *
+     * @param maxBytes  memory to use for results
+     * @param directory where to spill results, null to drop them instead
+     */
+    public ResultCache(long maxBytes, File directory) {
+        this.maxBytes = maxBytes;
+        if (directory != null) {
+            this.directory = new File(directory, "v" + Simulator.MODEL_VERSION);
+            if (!this.directory.isDirectory() && !this.directory.mkdirs()) {
+                throw new IllegalArgumentException("Cannot create cache directory " + this.directory);
+            }
+        }
+    }
+
+    /**
+     * Looks up a result, in memory first and then on disk.
+     *
+     * @param key scenario key
+     * @return the result, null if it isn't cached
+     */
+    public byte[] get(String key) {
+        synchronized (this) {
+            byte[] value = entries.get(key);
+            if (value != null) {
+                hits++;
+                return value;
+            }
+        }
+        byte[] value = read(key);
+        List<Map.Entry<String, byte[]>> evicted;
+        synchronized (this) {
+            if (value == null) {
+                misses++;
+                return null;
+            }
+            diskHits++;
+            evicted = insert(key, value);
+        }
+        spill(evicted);
+        return value;
+    }
+
+    /**
+     * Adds a result, spilling the least recently used results to disk if memory is full.
+     *
+     * @param key   scenario key
+     * @param value result
+     */
+    public void put(String key, byte[] value) {
+        List<Map.Entry<String, byte[]>> evicted;
+        synchronized (this) {
+            evicted = insert(key, value);
+        }
+        spill(evicted);
+    }
+
+    /**
+     * Spills everything still in memory to disk, so the results outlive the process.
+     */
+    public void flush() {
+        List<Map.Entry<String, byte[]>> all;
+        synchronized (this) {
+            all = new ArrayList<Map.Entry<String, byte[]>>(entries.entrySet());
+        }
+        spill(all);
+    }
+
+    public synchronized long getBytes() {
+        return bytes;
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    public synchronized long getHits() {
+        return hits;
+    }
+
+    public synchronized long getDiskHits() {
+        return diskHits;
+    }
+
+    public synchronized long getMisses() {
+        return misses;
+    }
+
+    /**
+     * Puts an entry in memory and takes out the least recently used ones until it fits.  The caller holds
+     * the lock, the evicted entries are returned so they can be written after it is released.
+     */
+    private List<Map.Entry<String, byte[]>> insert(String key, byte[] value) {
+        byte[] old = entries.put(key, value);
+        if (old != null) {
+            bytes -= size(key, old);
+        }
+        bytes += size(key, value);
+        List<Map.Entry<String, byte[]>> evicted = new ArrayList<>();
+        Iterator<Map.Entry<String, byte[]>> eldest = entries.entrySet().iterator();
+        // the newest entry stays even if it is larger than the whole cache
+        while (bytes > maxBytes && entries.size() > 1 && eldest.hasNext()) {
+            Map.Entry<String, byte[]> entry = eldest.next();
+            evicted.add(new AbstractMap.SimpleImmutableEntry<>(entry));
+            bytes -= size(entry.getKey(), entry.getValue());
+            eldest.remove();
+        }
+        return evicted;
+    }
+
+    private static long size(String key, byte[] value) {
+        return ENTRY_OVERHEAD + 2L * key.length() + value.length;
+    }
+
+    private void spill(List<Map.Entry<String, byte[]>> evicted) {
+        if (directory == null) {
+            return;
+        }
+        for (Map.Entry<String, byte[]> entry : evicted) {
+            File file = file(entry.getKey());
+            if (file.exists()) {
+                continue;
+            }
+            // write a temporary file and move it in place, readers never see half a result
+            File temporary = new File(directory, entry.getKey() + "." + Thread.currentThread().getId() + ".tmp");
+            try {
+                Files.write(temporary.toPath(), entry.getValue());
+                try {
+                    Files.move(temporary.toPath(), file.toPath(), StandardCopyOption.ATOMIC_MOVE);
+                } catch (AtomicMoveNotSupportedException e) {
+                    Files.move(temporary.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+                }
+            } catch (IOException e) {
+                // a result that can't be spilled is only lost from the cache, it can always be run again
+                temporary.delete();
+            }
+        }
+    }
+
+    private byte[] read(String key) {
+        if (directory == null) {
+            return null;
+        }
+        try {
+            return Files.readAllBytes(file(key).toPath());
+        } catch (IOException e) {
+            // not spilled yet, or unreadable, either way it has to be run again
+            return null;
+        }
+    }
+
+    private File file(String key) {
+        return new File(directory, key + ".json");
+    }
+}
@@ -0,0 +1,122 @@
+package scenario;
+
+import inputs.RobotInput;
+import utilities.Point;
+
+/**
+ * One headless simulation to run: the input, where the robot starts and how to step it.
+ * <p/>
+ * Created by CyberPuck on 2026-10-17.
+ */
+public class Scenario {
+    // default wheel radius, same as the UI
+    static double DEFAULT_WHEEL_RADIUS = 0.5;
+    // default step, roughly one 60Hz frame
+    static double DEFAULT_TIME_STEP = 1.0 / 60.0;
+    // default amount of simulated time before giving up
+    static double DEFAULT_TIME_BUDGET = 300.0;
+    // most steps a scenario can ask for, timeBudget / timeStep, so one request can't run forever
+    static double MAX_STEPS = 10000000;
+
+    // name echoed back in the result, can be null
+    private String name;
+    private RobotInput input;
+    // starting pose of the robot in the GRF, feet and degrees
+    private Point startLocation = new Point(0, 0);
+    private double startAngle = 0.0;
+    private double wheelRadius = DEFAULT_WHEEL_RADIUS;
+    // fixed time step and max simulated time in seconds
+    private double timeStep = DEFAULT_TIME_STEP;
+    private double timeBudget = DEFAULT_TIME_BUDGET;
+    // step from event to event instead of fixed steps
+    private boolean eventDriven;
+    // flag indicating if every step should be returned with the result
+    private boolean trajectory;
+
+    public Scenario(RobotInput input) {
+        this.input = input;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public RobotInput getInput() {
+        return input;
+    }
+
+    public Point getStartLocation() {
+        return startLocation;
+    }
+
+    public void setStartLocation(Point startLocation) {
+        this.startLocation = startLocation;
+    }
+
+    public double getStartAngle() {
+        return startAngle;
+    }
+
+    public void setStartAngle(double startAngle) {
+        this.startAngle = startAngle;
+    }
+
+    public double getWheelRadius() {
+        return wheelRadius;
+    }
+
+    public void setWheelRadius(double wheelRadius) {
+        this.wheelRadius = wheelRadius;
+    }
+
+    public double getTimeStep() {
+        return timeStep;
+    }
+
+    public void setTimeStep(double timeStep) {
+        this.timeStep = timeStep;
+    }
+
+    public double getTimeBudget() {
+        return timeBudget;
+    }
+
+    public void setTimeBudget(double timeBudget) {
+        this.timeBudget = timeBudget;
+    }
+
+    public boolean isEventDriven() {
+        return eventDriven;
+    }
+
+    public void setEventDriven(boolean eventDriven) {
+        this.eventDriven = eventDriven;
+    }
+
+    public boolean isTrajectory() {
+        return trajectory;
+    }
+
+    public void setTrajectory(boolean trajectory) {
+        this.trajectory = trajectory;
+    }
+
+    @Override
+    public String toString() {
+        return "Scenario{" +
+                "name=" + name +
+                ", input=" + input +
+                ", startLocation=" + startLocation +
+                ", startAngle=" + startAngle +
+                ", wheelRadius=" + wheelRadius +
+                ", timeStep=" + timeStep +
+                ", timeBudget=" + timeBudget +
+                ", eventDriven=" + eventDriven +
+                ", trajectory=" + trajectory +
+                '}';
+    }
+}
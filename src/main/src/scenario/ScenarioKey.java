@@ -0,0 +1,153 @@
+package scenario;
+
+import inputs.*;
+import simulator.Simulator;
+import utilities.FastTrig;
+import utilities.Point;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.security.DigestOutputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.List;
+
+/**
+ * Canonical hash of everything that decides the result of a scenario: the model version, the trig mode,
+ * every field of the input (way points included), the starting pose and the stepping.  The name isn't part of it, so the
+ * same run under a different name shares a key.  Doubles are hashed by their exact bits.
+ * <p/>
+ * Created by CyberPuck on 2026-10-17.
+ */
+public class ScenarioKey {
+
+    /**
+     * Hashes a scenario.
+     *
+     * @param scenario scenario to hash
+     * @return SHA-256 of the canonical form, as lower case hex
+     */
+    public static String of(Scenario scenario) {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            // every JVM has to provide SHA-256
+            throw new IllegalStateException(e);
+        }
+        DataOutputStream out = new DataOutputStream(new DigestOutputStream(new OutputStream() {
+            @Override
+            public void write(int b) {
+            }
+
+            @Override
+            public void write(byte[] b, int off, int len) {
+            }
+        }, digest));
+        try {
+            write(out, scenario);
+            out.flush();
+        } catch (IOException e) {
+            // nothing is actually written anywhere
+            throw new IllegalStateException(e);
+        }
+        byte[] hash = digest.digest();
+        StringBuilder hex = new StringBuilder(hash.length * 2);
+        for (byte b : hash) {
+            hex.append(Character.forDigit((b >> 4) & 0xf, 16)).append(Character.forDigit(b & 0xf, 16));
+        }
+        return hex.toString();
+    }
+
+    private static void write(DataOutputStream out, Scenario scenario) throws IOException {
+        out.writeInt(Simulator.MODEL_VERSION);
+        // the table approximations move the robot differently, their results can't answer exact runs
+        out.writeBoolean(FastTrig.isApproximate());
+        write(out, scenario.getStartLocation());
+        out.writeDouble(scenario.getStartAngle());
+        out.writeDouble(scenario.getWheelRadius());
+        out.writeDouble(scenario.getTimeStep());
+        out.writeDouble(scenario.getTimeBudget());
+        out.writeBoolean(scenario.isEventDriven());
+        out.writeBoolean(scenario.isTrajectory());
+        RobotInput input = scenario.getInput();
+        out.writeUTF(input.getMode().name());
+        switch (input.getMode()) {
+            case POINT:
+                PointInput pi = (PointInput) input;
+                write(out, pi.getEndPoint());
+                out.writeDouble(pi.getSpeed());
+                out.writeDouble(pi.getEndOrientation());
+                out.writeDouble(pi.getTime());
+                out.writeDouble(pi.getRotationRate());
+                write(out, pi.getWayPoints());
+                break;
+            case PATH_CIRCLE:
+                CirclePathInput ci = (CirclePathInput) input;
+                write(out, ci.getOrigin());
+                out.writeDouble(ci.getRadius());
+                out.writeDouble(ci.getInclination());
+                out.writeDouble(ci.getEndOrientation());
+                out.writeDouble(ci.getRotationRate());
+                out.writeDouble(ci.getTime());
+                write(out, ci.getWayPoints());
+                break;
+            case PATH_RECTANGLE:
+                RectanglePathInput ri = (RectanglePathInput) input;
+                write(out, ri.getOrigin());
+                out.writeDouble(ri.getTopLength());
+                out.writeDouble(ri.getSideLength());
+                out.writeDouble(ri.getInclination());
+                out.writeDouble(ri.getEndOrientation());
+                out.writeDouble(ri.getRotationRate());
+                out.writeDouble(ri.getTime());
+                write(out, ri.getWayPoints());
+                break;
+            case PATH_FIGURE_EIGHT:
+                FigureEightPathInput fi = (FigureEightPathInput) input;
+                write(out, fi.getOrigin());
+                out.writeDouble(fi.getRadiusOne());
+                out.writeDouble(fi.getRadiusTwo());
+                out.writeDouble(fi.getInclination());
+                out.writeDouble(fi.getEndOrientation());
+                out.writeDouble(fi.getRotationRate());
+                out.writeDouble(fi.getTime());
+                write(out, fi.getWayPoints());
+                break;
+            case CONTROL_GENERAL:
+                GeneralInput gi = (GeneralInput) input;
+                out.writeDouble(gi.getDirection());
+                out.writeDouble(gi.getSpeed());
+                out.writeDouble(gi.getRotation());
+                write(out, gi.getStartLocation());
+                break;
+            case CONTROL_WHEELS:
+                WheelInput wi = (WheelInput) input;
+                out.writeDouble(wi.getWheelOne());
+                out.writeDouble(wi.getWheelTwo());
+                out.writeDouble(wi.getWheelThree());
+                out.writeDouble(wi.getWheelFour());
+                break;
+            default:
+                throw new IllegalArgumentException(input.getMode() + " can't be hashed");
+        }
+    }
+
+    private static void write(DataOutputStream out, Point point) throws IOException {
+        out.writeBoolean(point != null);
+        if (point != null) {
+            out.writeDouble(point.getX());
+            out.writeDouble(point.getY());
+        }
+    }
+
+    private static void write(DataOutputStream out, List<Point> points) throws IOException {
+        out.writeInt(points == null ? -1 : points.size());
+        if (points != null) {
+            for (int i = 0; i < points.size(); i++) {
+                write(out, points.get(i));
+            }
+        }
+    }
+}
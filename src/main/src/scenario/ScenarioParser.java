@@ -0,0 +1,213 @@
+package scenario;
+
+import inputs.*;
+import utilities.Point;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.Properties;
+
+/**
+ * Reads a scenario from properties text, one key per line:
+ * <pre>
+ * name=square
+ * mode=PATH_RECTANGLE
+ * origin.x=0
+ * origin.y=10
+ * topLength=10
+ * sideLength=20
+ * inclination=0
+ * endOrientation=0
+ * rotationRate=0
+ * time=30
+ * start.x=0
+ * start.y=0
+ * start.angle=0
+ * </pre>
+ * The keys for each mode match the constructor arguments of its input:
+ * <ul>
+ * <li>POINT: end.x, end.y, speed, endOrientation, time, rotationRate</li>
+ * <li>PATH_CIRCLE: origin.x, origin.y, radius, inclination, endOrientation, rotationRate, time</li>
+ * <li>PATH_RECTANGLE: origin.x, origin.y, topLength, sideLength, inclination, endOrientation, rotationRate, time</li>
+ * <li>PATH_FIGURE_EIGHT: origin.x, origin.y, radiusOne, radiusTwo, inclination, endOrientation, rotationRate, time</li>
+ * <li>CONTROL_GENERAL: direction, speed, rotation</li>
+ * <li>CONTROL_WHEELS: wheelOne, wheelTwo, wheelThree, wheelFour</li>
+ * </ul>
+ * The point and path modes also take optional wayPoints, written as "x y; x y; ...".
+ * Every scenario can also set name, start.x, start.y, start.angle, wheelRadius, timeStep, timeBudget,
+ * eventDriven and trajectory.  timeBudget / timeStep can't be more than 10,000,000 steps.
+ * <p/>
+ * Created by CyberPuck on 2026-10-17.
+ */
+public class ScenarioParser {
+
+    /**
+     * Parses scenario text.
+     *
+     * @param text properties text
+     * @return the scenario
+     * @throws IllegalArgumentException if a key is missing or a value can't be read
+     */
+    public static Scenario parse(String text) {
+        try {
+            return parse(new StringReader(text));
+        } catch (IOException e) {
+            // a string reader doesn't throw
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Reads and parses scenario text.
+     *
+     * @param reader properties text
+     * @return the scenario
+     * @throws IOException              if the text can't be read
+     * @throws IllegalArgumentException if a key is missing or a value can't be read
+     */
+    public static Scenario parse(Reader reader) throws IOException {
+        Properties properties = new Properties();
+        properties.load(reader);
+        return parse(properties);
+    }
+
+    /**
+     * Builds a scenario from loaded properties.
+     *
+     * @param properties scenario keys
+     * @return the scenario
+     * @throws IllegalArgumentException if a key is missing or a value can't be read
+     */
+    public static Scenario parse(Properties properties) {
+        Point start = new Point(getDouble(properties, "start.x", 0.0), getDouble(properties, "start.y", 0.0));
+        Scenario scenario = new Scenario(parseInput(properties, start));
+        scenario.setName(properties.getProperty("name"));
+        scenario.setStartLocation(start);
+        scenario.setStartAngle(getDouble(properties, "start.angle", 0.0));
+        scenario.setWheelRadius(getDouble(properties, "wheelRadius", Scenario.DEFAULT_WHEEL_RADIUS));
+        scenario.setTimeStep(getDouble(properties, "timeStep", Scenario.DEFAULT_TIME_STEP));
+        scenario.setTimeBudget(getDouble(properties, "timeBudget", Scenario.DEFAULT_TIME_BUDGET));
+        scenario.setEventDriven(getBoolean(properties, "eventDriven", false));
+        scenario.setTrajectory(getBoolean(properties, "trajectory", false));
+        if (!(scenario.getTimeStep() > 0)) {
+            throw new IllegalArgumentException("timeStep must be positive: " + scenario.getTimeStep());
+        }
+        if (!(scenario.getTimeBudget() > 0)) {
+            throw new IllegalArgumentException("timeBudget must be positive: " + scenario.getTimeBudget());
+        }
+        if (!(scenario.getTimeBudget() / scenario.getTimeStep() <= Scenario.MAX_STEPS)) {
+            throw new IllegalArgumentException("timeBudget / timeStep is more than " + (long) Scenario.MAX_STEPS + " steps");
+        }
+        if (!(scenario.getWheelRadius() > 0)) {
+            throw new IllegalArgumentException("wheelRadius must be positive: " + scenario.getWheelRadius());
+        }
+        return scenario;
+    }
+
+    private static RobotInput parseInput(Properties properties, Point start) {
+        String mode = getString(properties, "mode");
+        InputMode inputMode;
+        try {
+            inputMode = InputMode.valueOf(mode.trim());
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Unknown mode: " + mode);
+        }
+        switch (inputMode) {
+            case POINT:
+                PointInput pi = new PointInput(getPoint(properties, "end"), getDouble(properties, "speed"),
+                        getDouble(properties, "endOrientation"), getDouble(properties, "time"),
+                        getDouble(properties, "rotationRate"));
+                pi.setWayPoints(getPoints(properties, "wayPoints"));
+                return pi;
+            case PATH_CIRCLE:
+                CirclePathInput cpi = new CirclePathInput(getPoint(properties, "origin"), getDouble(properties, "radius"),
+                        getDouble(properties, "inclination"), getDouble(properties, "endOrientation"),
+                        getDouble(properties, "rotationRate"), getDouble(properties, "time"));
+                cpi.setWayPoints(getPoints(properties, "wayPoints"));
+                return cpi;
+            case PATH_RECTANGLE:
+                RectanglePathInput rpi = new RectanglePathInput(getPoint(properties, "origin"), getDouble(properties, "topLength"),
+                        getDouble(properties, "sideLength"), getDouble(properties, "inclination"),
+                        getDouble(properties, "endOrientation"), getDouble(properties, "rotationRate"),
+                        getDouble(properties, "time"));
+                rpi.setWayPoints(getPoints(properties, "wayPoints"));
+                return rpi;
+            case PATH_FIGURE_EIGHT:
+                FigureEightPathInput fepi = new FigureEightPathInput(getPoint(properties, "origin"), getDouble(properties, "radiusOne"),
+                        getDouble(properties, "radiusTwo"), getDouble(properties, "inclination"),
+                        getDouble(properties, "endOrientation"), getDouble(properties, "rotationRate"),
+                        getDouble(properties, "time"));
+                fepi.setWayPoints(getPoints(properties, "wayPoints"));
+                return fepi;
+            case CONTROL_GENERAL:
+                GeneralInput gi = new GeneralInput(getDouble(properties, "direction"), getDouble(properties, "speed"),
+                        getDouble(properties, "rotation"));
+                // the general controller steers back to the line through the start
+                gi.setStartLocation(start);
+                return gi;
+            case CONTROL_WHEELS:
+                return new WheelInput(getDouble(properties, "wheelOne"), getDouble(properties, "wheelTwo"),
+                        getDouble(properties, "wheelThree"), getDouble(properties, "wheelFour"));
+            default:
+                throw new IllegalArgumentException(inputMode + " is not supported");
+        }
+    }
+
+    private static String getString(Properties properties, String key) {
+        String value = properties.getProperty(key);
+        if (value == null || value.trim().isEmpty()) {
+            throw new IllegalArgumentException("Missing " + key);
+        }
+        return value;
+    }
+
+    private static double getDouble(Properties properties, String key) {
+        return toDouble(key, getString(properties, key));
+    }
+
+    private static double getDouble(Properties properties, String key, double defaultValue) {
+        String value = properties.getProperty(key);
+        return value == null ? defaultValue : toDouble(key, value);
+    }
+
+    private static boolean getBoolean(Properties properties, String key, boolean defaultValue) {
+        String value = properties.getProperty(key);
+        return value == null ? defaultValue : Boolean.parseBoolean(value.trim());
+    }
+
+    private static Point getPoint(Properties properties, String key) {
+        return new Point(getDouble(properties, key + ".x"), getDouble(properties, key + ".y"));
+    }
+
+    /**
+     * Reads a list of points written as "x y; x y; ...", null if the key isn't set.
+     */
+    private static ArrayList<Point> getPoints(Properties properties, String key) {
+        String value = properties.getProperty(key);
+        if (value == null) {
+            return null;
+        }
+        ArrayList<Point> points = new ArrayList<>();
+        for (String pair : value.split(";")) {
+            if (pair.trim().isEmpty()) {
+                continue;
+            }
+            String[] parts = pair.trim().split("[\\s,]+");
+            if (parts.length != 2) {
+                throw new IllegalArgumentException("Bad point in " + key + ": " + pair.trim());
+            }
+            points.add(new Point(toDouble(key, parts[0]), toDouble(key, parts[1])));
+        }
+        return points;
+    }
+
+    private static double toDouble(String key, String value) {
+        try {
+            return Double.parseDouble(value.trim());
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Bad number for " + key + ": " + value);
+        }
+    }
+}
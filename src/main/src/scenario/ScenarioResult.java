@@ -0,0 +1,33 @@
+package scenario;
+
+import simulator.BatchResult;
+
+/**
+ * Outcome of a scenario: the batch result and the steps, if they were asked for.
+ * <p/>
+ * Created by CyberPuck on 2026-10-17.
+ */
+public class ScenarioResult {
+    private Scenario scenario;
+    private BatchResult result;
+    // every step of the run, null if the scenario didn't ask for it
+    private TrajectoryCollector trajectory;
+
+    public ScenarioResult(Scenario scenario, BatchResult result, TrajectoryCollector trajectory) {
+        this.scenario = scenario;
+        this.result = result;
+        this.trajectory = trajectory;
+    }
+
+    public Scenario getScenario() {
+        return scenario;
+    }
+
+    public BatchResult getResult() {
+        return result;
+    }
+
+    public TrajectoryCollector getTrajectory() {
+        return trajectory;
+    }
+}
@@ -0,0 +1,213 @@
+package scenario;
+
+import robot.Robot;
+import simulator.BatchResult;
+import simulator.BatchRunner;
+import utilities.Point;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Runs scenarios on the headless Simulator.  Every run gets its own simulator and robot, so any number
+ * of threads can share one runner.
+ * <p/>
+ * Also the command line entry point, it runs scenario files and writes one JSON line per scenario.
+ * Nothing in here touches JavaFX, so it starts without loading the toolkit, FXML or images.
+ * <p/>
+ * Created by CyberPuck on 2026-10-17.
+ */
+public class ScenarioRunner {
+    // default memory for cached results on the command line
+    private static long DEFAULT_CACHE_BYTES = 64L << 20;
+
+    // earlier results, null to always run the simulator
+    private ResultCache cache;
+
+    public ResultCache getCache() {
+        return cache;
+    }
+
+    /**
+     * Sets a cache for runJson, identical scenarios then skip the simulator.
+     *
+     * @param cache cache to use, null to always simulate
+     */
+    public void setCache(ResultCache cache) {
+        this.cache = cache;
+    }
+
+    /**
+     * Runs a scenario to completion.
+     *
+     * @param scenario scenario to run
+     * @return result of the run
+     */
+    public ScenarioResult run(Scenario scenario) {
+        Robot robot = new Robot(scenario.getWheelRadius());
+        robot.setLocation(new Point(scenario.getStartLocation().getX(), scenario.getStartLocation().getY()));
+        robot.setAngle(scenario.getStartAngle());
+        robot.setVelocity(new Point(0, 0));
+        BatchRunner runner = new BatchRunner(scenario.getTimeStep(), scenario.getTimeBudget());
+        runner.setEventDriven(scenario.isEventDriven());
+        TrajectoryCollector trajectory = null;
+        if (scenario.isTrajectory()) {
+            trajectory = new TrajectoryCollector();
+            runner.setRecorder(trajectory);
+        }
+        BatchResult result = runner.run(scenario.getInput(), robot, scenario.getWheelRadius());
+        return new ScenarioResult(scenario, result, trajectory);
+    }
+
+    /**
+     * Runs a scenario and formats the result as one line of JSON.  With a cache an identical scenario
+     * that has already run is answered from the cache without simulating.  Every result has a
+     * "cached" field, false when it was simulated.
+     *
+     * @param scenario scenario to run
+     * @return JSON object without a trailing new line
+     */
+    public String runJson(Scenario scenario) {
+        if (cache == null) {
+            // same shape as a cached answer, so results diff the same with or without a cache
+            return JsonWriter.withName(scenario.getName(), JsonWriter.toFields(run(scenario)), false);
+        }
+        String key = ScenarioKey.of(scenario);
+        byte[] cached = cache.get(key);
+        String fields;
+        if (cached != null) {
+            fields = new String(cached, StandardCharsets.UTF_8);
+        } else {
+            fields = JsonWriter.toFields(run(scenario));
+            cache.put(key, fields.getBytes(StandardCharsets.UTF_8));
+        }
+        return JsonWriter.withName(scenario.getName(), fields, cached != null);
+    }
+
+    /**
+     * Runs scenario files and writes the results as JSON lines.
+     * <pre>
+     * ScenarioRunner [-o results.jsonl] [-cache directory] scenario.properties scenarios/ -
+     * </pre>
+     * With -cache, results are kept in the directory and scenarios that already ran there aren't simulated
+     * again.  Directories run every file in them in name order, - reads a single scenario from standard input.
+     * Scenarios without a name are named after their file.  A scenario that can't be read or run writes
+     * an error line and the exit code is 1.
+     *
+     * @param args output option followed by scenario files
+     * @throws IOException if the output can't be written
+     */
+    public static void main(String[] args) throws IOException {
+        String output = null;
+        String cacheDirectory = null;
+        List<File> files = new ArrayList<>();
+        boolean standardInput = false;
+        for (int i = 0; i < args.length; i++) {
+            if (args[i].equals("-o") && i + 1 < args.length) {
+                output = args[++i];
+            } else if (args[i].equals("-cache") && i + 1 < args.length) {
+                cacheDirectory = args[++i];
+            } else if (args[i].equals("-")) {
+                standardInput = true;
+            } else {
+                addFiles(new File(args[i]), files);
+            }
+        }
+        if (files.isEmpty() && !standardInput) {
+            System.err.println("Usage: ScenarioRunner [-o results.jsonl] [-cache directory] scenario files, directories or -");
+            System.exit(2);
+        }
+        OutputStream out = output == null ? System.out : new FileOutputStream(output);
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), 1 << 16);
+        ScenarioRunner runner = new ScenarioRunner();
+        if (cacheDirectory != null) {
+            runner.setCache(new ResultCache(DEFAULT_CACHE_BYTES, new File(cacheDirectory)));
+        }
+        boolean failed = false;
+        try {
+            for (File file : files) {
+                Reader reader = null;
+                try {
+                    reader = new InputStreamReader(new FileInputStream(file), StandardCharsets.UTF_8);
+                    failed |= !runLine(runner, reader, file.getName(), writer);
+                } catch (IOException e) {
+                    writeLine(writer, JsonWriter.toJson(file.getName(), e.toString()));
+                    failed = true;
+                } finally {
+                    if (reader != null) {
+                        reader.close();
+                    }
+                }
+            }
+            if (standardInput) {
+                failed |= !runLine(runner, new InputStreamReader(System.in, StandardCharsets.UTF_8), "-", writer);
+            }
+        } finally {
+            if (runner.getCache() != null) {
+                // keep this run's results for the next invocation
+                runner.getCache().flush();
+            }
+            writer.flush();
+            if (output != null) {
+                writer.close();
+            }
+        }
+        if (failed) {
+            System.exit(1);
+        }
+    }
+
+    /**
+     * Parses and runs one scenario and writes its line.
+     *
+     * @return false if the scenario failed
+     */
+    private static boolean runLine(ScenarioRunner runner, Reader reader, String fileName, Writer writer) throws IOException {
+        Scenario scenario;
+        try {
+            scenario = ScenarioParser.parse(reader);
+        } catch (IllegalArgumentException e) {
+            writeLine(writer, JsonWriter.toJson(fileName, e.getMessage()));
+            return false;
+        }
+        if (scenario.getName() == null) {
+            scenario.setName(fileName);
+        }
+        try {
+            writeLine(writer, runner.runJson(scenario));
+        } catch (RuntimeException e) {
+            writeLine(writer, JsonWriter.toJson(scenario.getName(), e.toString()));
+            return false;
+        }
+        return true;
+    }
+
+    private static void writeLine(Writer writer, String json) throws IOException {
+        writer.write(json);
+        writer.write('\n');
+    }
+
+    /**
+     * Adds a file, or every file in a directory sorted by name.
+     */
+    private static void addFiles(File file, List<File> files) {
+        if (file.isDirectory()) {
+            File[] children = file.listFiles();
+            if (children == null) {
+                files.add(file);
+                return;
+            }
+            Arrays.sort(children);
+            for (File child : children) {
+                if (child.isFile() && !child.isHidden()) {
+                    files.add(child);
+                }
+            }
+        } else {
+            files.add(file);
+        }
+    }
+}
@@ -0,0 +1,200 @@
+package scenario;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Local HTTP service for running simulations from other tools without the UI.  Only listens on the
+ * loopback address.  POST a scenario (see ScenarioParser) to /simulate and the result comes back as
+ * JSON, GET /health to check the service is up.
+ * <p/>
+ * Every request is handled on its own virtual thread when the JVM has them (Java 21+), so lots of
+ * short concurrent jobs don't each tie up a platform thread.  Older JVMs fall back to a cached pool.
+ * <p/>
+ * Created by CyberPuck on 2026-10-17.
+ */
+public class SimulationServer {
+    private static int DEFAULT_PORT = 8642;
+    // largest scenario accepted, way points included
+    private static int MAX_REQUEST_SIZE = 1 << 20;
+    // seconds to let running requests finish when stopping
+    private static int STOP_DELAY = 1;
+    // memory for cached results
+    private static long CACHE_BYTES = 256L << 20;
+
+    private HttpServer server;
+    private ExecutorService executor;
+    private ScenarioRunner runner = new ScenarioRunner();
+
+    /**
+     * Binds the service to a loopback port, it doesn't accept requests until started.
+     *
+     * @param port port to listen on, 0 picks a free one
+     * @throws IOException if the port can't be bound
+     */
+    public SimulationServer(int port) throws IOException {
+        this(port, null);
+    }
+
+    /**
+     * Binds the service to a loopback port, identical requests are answered from the cache.
+     *
+     * @param port  port to listen on, 0 picks a free one
+     * @param cache cache of earlier results, null to simulate every request
+     * @throws IOException if the port can't be bound
+     */
+    public SimulationServer(int port, ResultCache cache) throws IOException {
+        runner.setCache(cache);
+        server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), port), 0);
+        executor = createExecutor();
+        server.setExecutor(executor);
+        server.createContext("/simulate", new SimulateHandler());
+        server.createContext("/health", new HttpHandler() {
+            @Override
+            public void handle(HttpExchange exchange) throws IOException {
+                respond(exchange, 200, "{\"status\":\"ok\"}");
+            }
+        });
+    }
+
+    public void start() {
+        server.start();
+    }
+
+    /**
+     * Stops accepting requests and waits a moment for the running ones to finish.
+     */
+    public void stop() {
+        server.stop(STOP_DELAY);
+        executor.shutdown();
+        try {
+            executor.awaitTermination(STOP_DELAY, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (runner.getCache() != null) {
+            runner.getCache().flush();
+        }
+    }
+
+    public int getPort() {
+        return server.getAddress().getPort();
+    }
+
+    /**
+     * One virtual thread per task if the JVM has them, looked up by reflection so the code still
+     * builds for Java 8.  Otherwise a cached pool of daemon threads.
+     *
+     * @return executor for the requests
+     */
+    static ExecutorService createExecutor() {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException e) {
+            return Executors.newCachedThreadPool(new ThreadFactory() {
+                @Override
+                public Thread newThread(Runnable r) {
+                    Thread thread = new Thread(r, "simulation-request");
+                    thread.setDaemon(true);
+                    return thread;
+                }
+            });
+        }
+    }
+
+    /**
+     * Runs the scenario in the request body.
+     */
+    private class SimulateHandler implements HttpHandler {
+        @Override
+        public void handle(HttpExchange exchange) throws IOException {
+            if (!"POST".equals(exchange.getRequestMethod())) {
+                exchange.getResponseHeaders().set("Allow", "POST");
+                respond(exchange, 405, JsonWriter.toJson(null, "Use POST"));
+                return;
+            }
+            String body = readBody(exchange.getRequestBody());
+            if (body == null) {
+                respond(exchange, 413, JsonWriter.toJson(null, "Scenario larger than " + MAX_REQUEST_SIZE + " bytes"));
+                return;
+            }
+            Scenario scenario;
+            try {
+                scenario = ScenarioParser.parse(body);
+            } catch (IllegalArgumentException e) {
+                respond(exchange, 400, JsonWriter.toJson(null, e.getMessage()));
+                return;
+            }
+            try {
+                respond(exchange, 200, runner.runJson(scenario));
+            } catch (Throwable e) {
+                // errors too, an unanswered exchange leaves the client hanging
+                respond(exchange, 500, JsonWriter.toJson(scenario.getName(), e.toString()));
+            }
+        }
+    }
+
+    /**
+     * Reads the whole body, null if it is too large.
+     */
+    private static String readBody(InputStream in) throws IOException {
+        ByteArrayOutputStream body = new ByteArrayOutputStream();
+        byte[] buffer = new byte[8192];
+        int read;
+        while ((read = in.read(buffer)) != -1) {
+            if (body.size() + read > MAX_REQUEST_SIZE) {
+                return null;
+            }
+            body.write(buffer, 0, read);
+        }
+        return new String(body.toByteArray(), StandardCharsets.UTF_8);
+    }
+
+    private static void respond(HttpExchange exchange, int status, String json) throws IOException {
+        byte[] bytes = json.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        exchange.sendResponseHeaders(status, bytes.length);
+        OutputStream out = exchange.getResponseBody();
+        try {
+            out.write(bytes);
+        } finally {
+            out.close();
+        }
+    }
+
+    /**
+     * Starts the service with a memory cache.  The port can be given as the first argument and a directory
+     * to spill cached results to as the second.
+     *
+     * @param args optional port and cache directory
+     * @throws IOException if the port can't be bound
+     */
+    public static void main(String[] args) throws IOException {
+        int port = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_PORT;
+        ResultCache cache = new ResultCache(CACHE_BYTES, args.length > 1 ? new File(args[1]) : null);
+        final SimulationServer server = new SimulationServer(port, cache);
+        server.start();
+        Runtime.getRuntime().addShutdownHook(new Thread() {
+            @Override
+            public void run() {
+                server.stop();
+            }
+        });
+        System.out.println("Simulation service listening on " + InetAddress.getLoopbackAddress().getHostAddress()
+                + ":" + server.getPort());
+    }
+}
@@ -0,0 +1,95 @@
+package scenario;
+
+import recording.TrajectorySink;
+import robot.Robot;
+
+import java.util.Arrays;
+
+/**
+ * Keeps the pose of the recorded steps in memory, small enough to send back with a result.  Once
+ * MAX_SAMPLES are kept every other one is dropped and only every second step is recorded from then on,
+ * so a long run is thinned out evenly instead of growing without limit.
+ * <p/>
+ * Created by CyberPuck on 2026-10-17.
+ */
+public class TrajectoryCollector implements TrajectorySink {
+    // most samples kept, a power of two so halving stays even
+    private static int MAX_SAMPLES = 1 << 16;
+
+    private double[] time = new double[256];
+    private double[] x = new double[256];
+    private double[] y = new double[256];
+    private double[] angle = new double[256];
+    private int size;
+    // only every stride-th step is kept
+    private long stride = 1;
+    // steps offered so far, kept or not
+    private long steps;
+
+    @Override
+    public void record(double time, Robot robot) {
+        if (steps++ % stride != 0) {
+            return;
+        }
+        if (size == MAX_SAMPLES) {
+            thin();
+            if ((steps - 1) % stride != 0) {
+                return;
+            }
+        }
+        if (size == this.time.length) {
+            this.time = Arrays.copyOf(this.time, size * 2);
+            x = Arrays.copyOf(x, size * 2);
+            y = Arrays.copyOf(y, size * 2);
+            angle = Arrays.copyOf(angle, size * 2);
+        }
+        this.time[size] = time;
+        x[size] = robot.getX();
+        y[size] = robot.getY();
+        angle[size] = robot.getAngle();
+        size++;
+    }
+
+    /**
+     * Drops every other sample and doubles the stride.
+     */
+    private void thin() {
+        for (int i = 0; i < size / 2; i++) {
+            time[i] = time[2 * i];
+            x[i] = x[2 * i];
+            y[i] = y[2 * i];
+            angle[i] = angle[2 * i];
+        }
+        size /= 2;
+        stride *= 2;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Steps between the samples kept, 1 until the run went over MAX_SAMPLES.
+     *
+     * @return stride in steps
+     */
+    public long getStride() {
+        return stride;
+    }
+
+    public double getTime(int index) {
+        return time[index];
+    }
+
+    public double getX(int index) {
+        return x[index];
+    }
+
+    public double getY(int index) {
+        return y[index];
+    }
+
+    public double getAngle(int index) {
+        return angle[index];
+    }
+}
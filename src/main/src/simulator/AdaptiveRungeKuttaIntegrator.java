@@ -0,0 +1,119 @@
+package simulator;
+
+import robot.Robot;
+import utilities.FixedPoint;
+import utilities.SinCos;
+
+/**
+ * Dormand-Prince RK45 with error control.  Each frame is covered with as many internal steps as
+ * needed to keep the estimated position error of every internal step under the tolerance.  The step
+ * size carries over between frames, so it grows on straight segments (no rotation, no error) and
+ * shrinks while turning.  The robot state is only trimmed to the thousandth at the end of the frame.
+ * <p/>
+ * Keep one per simulator, the step size and counters belong to a single robot.
+ * <p/>
+ * Created by CyberPuck on 2026-10-17.
+ */
+public class AdaptiveRungeKuttaIntegrator implements Integrator {
+    // default position error allowed per internal step, in feet
+    private static double DEFAULT_TOLERANCE = 1e-6;
+    // smallest internal step, accepted whatever the error so a frame always finishes
+    private static double MIN_STEP = 1e-6;
+    // limits on how fast the step size can change between internal steps
+    private static double MIN_SCALE = 0.2;
+    private static double MAX_SCALE = 5.0;
+    private static double SAFETY = 0.9;
+
+    // Dormand-Prince nodes and weights, the last node is the same as the one before (first same as last)
+    private static double[] C = {0, 1.0 / 5, 3.0 / 10, 4.0 / 5, 8.0 / 9, 1};
+    // fifth order solution
+    private static double[] B = {35.0 / 384, 0, 500.0 / 1113, 125.0 / 192, -2187.0 / 6784, 11.0 / 84};
+    // fifth order minus the embedded fourth order, the 1/40 of the seventh stage is folded in to the last
+    private static double[] E = {35.0 / 384 - 5179.0 / 57600, 0, 500.0 / 1113 - 7571.0 / 16695,
+            125.0 / 192 - 393.0 / 640, -2187.0 / 6784 + 92097.0 / 339200, 11.0 / 84 - 187.0 / 2100 - 1.0 / 40};
+
+    // position error allowed per internal step, in feet
+    private double tolerance;
+    // internal step size to try next, NaN until the first frame
+    private double stepSize = Double.NaN;
+    // internal steps accepted and rejected since the integrator was made
+    private long steps;
+    private long rejected;
+    // sin and cos of the stage angle, stages share the same angle when the robot isn't turning
+    private SinCos stage = new SinCos();
+
+    public AdaptiveRungeKuttaIntegrator() {
+        this(DEFAULT_TOLERANCE);
+    }
+
+    public AdaptiveRungeKuttaIntegrator(double tolerance) {
+        setTolerance(tolerance);
+    }
+
+    public double getTolerance() {
+        return tolerance;
+    }
+
+    public void setTolerance(double tolerance) {
+        if (!(tolerance > 0)) {
+            throw new IllegalArgumentException("Tolerance must be positive: " + tolerance);
+        }
+        this.tolerance = tolerance;
+    }
+
+    public double getStepSize() {
+        return stepSize;
+    }
+
+    public long getSteps() {
+        return steps;
+    }
+
+    public long getRejected() {
+        return rejected;
+    }
+
+    @Override
+    public void step(Robot robot, double xVel, double yVel, double rotationRate, double timeDelta) {
+        double angle = robot.getAngle();
+        double x = robot.getX();
+        double y = robot.getY();
+        if (Double.isNaN(stepSize)) {
+            stepSize = timeDelta;
+        }
+        double remaining = timeDelta;
+        while (remaining > 0) {
+            double h = Math.min(stepSize, remaining);
+            double dx = 0;
+            double dy = 0;
+            double errorX = 0;
+            double errorY = 0;
+            for (int i = 0; i < C.length; i++) {
+                stage.set(angle + rotationRate * C[i] * h);
+                double globalX = stage.getCos() * xVel - stage.getSin() * yVel;
+                double globalY = stage.getSin() * xVel + stage.getCos() * yVel;
+                dx += B[i] * globalX;
+                dy += B[i] * globalY;
+                errorX += E[i] * globalX;
+                errorY += E[i] * globalY;
+            }
+            double error = h * Math.sqrt(errorX * errorX + errorY * errorY);
+            double scale = error == 0 ? MAX_SCALE : SAFETY * Math.pow(tolerance / error, 0.2);
+            scale = Math.max(MIN_SCALE, Math.min(MAX_SCALE, scale));
+            if (error <= tolerance || h <= MIN_STEP) {
+                x += h * dx;
+                y += h * dy;
+                angle += rotationRate * h;
+                remaining -= h;
+                steps++;
+                // a step cut short by the end of the frame doesn't shrink the step if it was easy
+                stepSize = h < stepSize && scale >= 1 ? stepSize : Math.max(MIN_STEP, h * scale);
+            } else {
+                rejected++;
+                stepSize = Math.max(MIN_STEP, h * scale);
+            }
+        }
+        robot.setQuantizedAngle(FixedPoint.quantize(angle));
+        robot.setQuantizedLocation(FixedPoint.quantize(x), FixedPoint.quantize(y));
+    }
+}
@@ -0,0 +1,89 @@
+package simulator;
+
+import robot.Robot;
+
+/**
+ * Outcome of a single headless simulation run, holds the final robot state and timing stats.
+ * <p/>
+ * Created by CyberPuck on 2026-10-17.
+ */
+public class BatchResult {
+    // robot state when the run ended
+    private Robot robot;
+    // flag indicating if the goal was reached before the time budget ran out
+    private boolean atGoal;
+    // flag indicating if the input could be completed in the requested time
+    private boolean enoughTime;
+    // total simulated time in seconds
+    private double simulatedTime;
+    // number of simulation steps taken
+    private long steps;
+    // wall clock time spent running the simulation in nanoseconds
+    private long wallTime;
+    // largest absolute wheel rate seen during the run
+    private double maxWheelRate;
+
+    public BatchResult(Robot robot, boolean atGoal, boolean enoughTime, double simulatedTime, long steps, long wallTime,
+                       double maxWheelRate) {
+        this.robot = robot;
+        this.atGoal = atGoal;
+        this.enoughTime = enoughTime;
+        this.simulatedTime = simulatedTime;
+        this.steps = steps;
+        this.wallTime = wallTime;
+        this.maxWheelRate = maxWheelRate;
+    }
+
+    public Robot getRobot() {
+        return robot;
+    }
+
+    public boolean isAtGoal() {
+        return atGoal;
+    }
+
+    public boolean isEnoughTime() {
+        return enoughTime;
+    }
+
+    public double getSimulatedTime() {
+        return simulatedTime;
+    }
+
+    public long getSteps() {
+        return steps;
+    }
+
+    public long getWallTime() {
+        return wallTime;
+    }
+
+    public double getMaxWheelRate() {
+        return maxWheelRate;
+    }
+
+    /**
+     * How much faster than real time the run was.
+     *
+     * @return simulated seconds per wall clock second
+     */
+    public double getSpeedUp() {
+        if (wallTime <= 0) {
+            return 0.0;
+        }
+        return simulatedTime / (wallTime / 1000000000.0);
+    }
+
+    @Override
+    public String toString() {
+        return "BatchResult{" +
+                "robot=" + robot +
+                ", atGoal=" + atGoal +
+                ", enoughTime=" + enoughTime +
+                ", simulatedTime=" + simulatedTime +
+                ", steps=" + steps +
+                ", wallTime=" + wallTime +
+                ", maxWheelRate=" + maxWheelRate +
+                '}';
+    }
+}
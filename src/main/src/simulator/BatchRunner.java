@@ -0,0 +1,135 @@
+package simulator;
+
+import inputs.RobotInput;
+import recording.TrajectorySink;
+import robot.Robot;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+
+/**
+ * Drives a simulator without a display, stepping with a fixed time delta as fast as the CPU allows.
+ * A run stops when the goal is reached or the time budget (in simulated seconds) runs out.
+ * <p/>
+ * Created by CyberPuck on 2026-10-17.
+ */
+public class BatchRunner {
+    // default step, roughly one 60Hz frame
+    private static double DEFAULT_TIME_STEP = 1.0 / 60.0;
+    // default amount of simulated time before giving up
+    private static double DEFAULT_TIME_BUDGET = 300.0;
+
+    // fixed time delta handed to the simulator every step, in seconds
+    private double timeStep;
+    // max simulated time before the run is stopped, in seconds
+    private double timeBudget;
+    // jump from event to event with Simulator.advance instead of fixed steps
+    private boolean eventDriven;
+    // gets the robot state after every step, null to not record
+    private TrajectorySink recorder;
+
+    public BatchRunner() {
+        this(DEFAULT_TIME_STEP, DEFAULT_TIME_BUDGET);
+    }
+
+    public BatchRunner(double timeStep, double timeBudget) {
+        if (timeStep <= 0) {
+            throw new IllegalArgumentException("Time step must be positive: " + timeStep);
+        }
+        this.timeStep = timeStep;
+        this.timeBudget = timeBudget;
+    }
+
+    public double getTimeStep() {
+        return timeStep;
+    }
+
+    public double getTimeBudget() {
+        return timeBudget;
+    }
+
+    public boolean isEventDriven() {
+        return eventDriven;
+    }
+
+    /**
+     * Switches between fixed time steps and event driven stepping, where every step moves the robot
+     * straight to the next course recalculation or vertex with Simulator.advance.
+     *
+     * @param eventDriven true to step from event to event
+     */
+    public void setEventDriven(boolean eventDriven) {
+        this.eventDriven = eventDriven;
+    }
+
+    public TrajectorySink getRecorder() {
+        return recorder;
+    }
+
+    /**
+     * Records the starting state and the state after every step of the following runs.  The recorder
+     * isn't closed by the runner.
+     *
+     * @param recorder recorder or trace writer to append to, null to stop recording
+     */
+    public void setRecorder(TrajectorySink recorder) {
+        this.recorder = recorder;
+    }
+
+    /**
+     * Sets up a new simulator for the input and runs it to completion.
+     *
+     * @param input       Input for the robot
+     * @param robot       Robot at its starting location and angle
+     * @param wheelRadius radius of the wheels in feet
+     * @return result of the run
+     */
+    public BatchResult run(RobotInput input, Robot robot, double wheelRadius) {
+        return run(new Simulator(input, robot, wheelRadius));
+    }
+
+    /**
+     * Steps the simulator until it reaches the goal or the time budget runs out.
+     *
+     * @param sim Simulator to drive
+     * @return result of the run
+     */
+    public BatchResult run(Simulator sim) {
+        // same as the UI, don't bother running if the path can't be completed in time
+        if (!sim.isEnoughTime()) {
+            return new BatchResult(sim.getRobot(), false, false, 0.0, 0, 0, 0.0);
+        }
+        long steps = 0;
+        double time = 0.0;
+        double maxWheelRate = 0.0;
+        long startTime = System.nanoTime();
+        record(0.0, sim.getRobot());
+        while (eventDriven && !sim.isAtGoal() && time < timeBudget) {
+            time += sim.advance(timeBudget - time);
+            maxWheelRate = Math.max(maxWheelRate, sim.getRobot().getMaxWheelRate());
+            steps++;
+            record(time, sim.getRobot());
+        }
+        while (!eventDriven && !sim.isAtGoal() && time < timeBudget) {
+            sim.calculateNewPosition(timeStep);
+            maxWheelRate = Math.max(maxWheelRate, sim.getRobot().getMaxWheelRate());
+            steps++;
+            // avoid accumulating floating point error over long runs
+            time = steps * timeStep;
+            record(time, sim.getRobot());
+        }
+        long wallTime = System.nanoTime() - startTime;
+        return new BatchResult(sim.getRobot(), sim.isAtGoal(), true, time, steps, wallTime, maxWheelRate);
+    }
+
+    private void record(double time, Robot robot) {
+        if (recorder == null) {
+            return;
+        }
+        try {
+            recorder.record(time, robot);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,32 @@
+package simulator;
+
+import robot.Robot;
+import robot.VelocityEquations;
+import utilities.FixedPoint;
+import utilities.Point;
+import utilities.SinCos;
+
+/**
+ * Explicit Euler, the Simulator's original update.  Turns the robot first, trims the angle, then
+ * translates along the new heading for the whole step.  Needs a small time step on curved paths.
+ * <p/>
+ * Created by CyberPuck on 2026-10-17.
+ */
+public class EulerIntegrator implements Integrator {
+    // sin and cos of the robot angle, only recalculated when the robot turns
+    private SinCos yaw = new SinCos();
+    // scratch point for the GRF velocity, reused every frame to avoid allocating
+    private Point globalVelocity = new Point();
+
+    @Override
+    public void step(Robot robot, double xVel, double yVel, double rotationRate, double timeDelta) {
+        double angle = robot.getAngle() + timeDelta * rotationRate;
+        robot.setQuantizedAngle(FixedPoint.quantize(angle));
+        // update velocities based on vehicle angle to the GRF
+        VelocityEquations.convertYawToGlobalFrame(xVel, yVel, yaw.set(robot.getAngle()), globalVelocity);
+        // calculate the new position data
+        double newX = globalVelocity.getX() * timeDelta + robot.getX();
+        double newY = globalVelocity.getY() * timeDelta + robot.getY();
+        robot.setQuantizedLocation(FixedPoint.quantize(newX), FixedPoint.quantize(newY));
+    }
+}
@@ -0,0 +1,56 @@
+package simulator;
+
+import robot.Robot;
+import utilities.FastTrig;
+import utilities.FixedPoint;
+
+/**
+ * Closed form motion for a constant body frame velocity and rotation rate.  The robot follows an exact
+ * circular arc (a straight line when it isn't turning), so the result doesn't depend on the time step
+ * and a whole interval between course corrections can be taken in one step.
+ * <p/>
+ * Over a step of length t turning from angle a by turn b, the GRF velocity integrates to
+ * t * sinc(b / 2) times the robot frame velocity rotated by the middle angle a + b / 2.
+ * <p/>
+ * Created by CyberPuck on 2026-10-17.
+ */
+public class ExactIntegrator implements Integrator {
+    // below this half turn (radians) sinc uses its series, sin(u) / u loses precision
+    private static double SMALL_TURN = 1e-4;
+
+    // scratch pose, x, y and angle
+    private double[] pose = new double[3];
+
+    @Override
+    public void step(Robot robot, double xVel, double yVel, double rotationRate, double timeDelta) {
+        move(robot.getX(), robot.getY(), robot.getAngle(), xVel, yVel, rotationRate, timeDelta, pose);
+        robot.setQuantizedAngle(FixedPoint.quantize(pose[2]));
+        robot.setQuantizedLocation(FixedPoint.quantize(pose[0]), FixedPoint.quantize(pose[1]));
+    }
+
+    /**
+     * Works out where a robot ends up after moving with a constant velocity and rotation rate.
+     *
+     * @param x            starting x location in feet
+     * @param y            starting y location in feet
+     * @param angle        starting angle in degrees
+     * @param xVel         robot frame x velocity in feet/sec
+     * @param yVel         robot frame y velocity in feet/sec
+     * @param rotationRate rotation rate in degrees/sec
+     * @param time         time to move for in seconds
+     * @param pose         x, y and angle at the end, not trimmed
+     */
+    public static void move(double x, double y, double angle, double xVel, double yVel, double rotationRate,
+                            double time, double[] pose) {
+        double turn = rotationRate * time;
+        double half = Math.toRadians(turn) / 2;
+        double sinc = Math.abs(half) < SMALL_TURN ? 1 - half * half / 6 : Math.sin(half) / half;
+        double middle = angle + turn / 2;
+        // integrals of cos and sin of the angle over the step
+        double cos = time * sinc * FastTrig.cos(middle);
+        double sin = time * sinc * FastTrig.sin(middle);
+        pose[0] = x + cos * xVel - sin * yVel;
+        pose[1] = y + sin * xVel + cos * yVel;
+        pose[2] = angle + turn;
+    }
+}
@@ -0,0 +1,269 @@
+package simulator;
+
+import robot.Kinematics;
+import robot.Robot;
+import robot.VelocityEquations;
+
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Moves a whole fleet of mecanum robots at once.  State is kept in parallel primitive arrays
+ * (index i is robot i) and every step runs one tight loop over them instead of chasing Robot objects.
+ * <p/>
+ * Uses the same kinematics and yaw to global frame conversion as the Simulator, turning first and
+ * then translating.  Unlike the Simulator the state is not trimmed to the thousandth, at fleet step
+ * rates (1 kHz and up) a robot moves less than that per step.
+ * <p/>
+ * Created by CyberPuck on 2026-10-17.
+ */
+public class FleetSimulator {
+    // distance between the wheels and the center, same as the Simulator and Robot use
+    private static double WHEEL_WIDTH = 1.0;
+    private static double WHEEL_LENGTH = 2.0;
+    // smallest slice of the fleet a fork-join task will step
+    private static int ROBOTS_PER_TASK = 4096;
+
+    private double wheelRadius;
+    // number of robots in the fleet
+    private int size;
+    // GRF location in feet
+    private double[] x;
+    private double[] y;
+    // angle relative to the global frame in degrees
+    private double[] angle;
+    // velocity in the robot reference frame in feet/sec
+    private double[] velocityX;
+    private double[] velocityY;
+    // rotation rate in degrees/sec
+    private double[] rotationRate;
+    // scratch space for the GRF velocities, filled every step
+    private double[] globalX;
+    private double[] globalY;
+    // total simulated time in seconds
+    private double time;
+
+    public FleetSimulator(int capacity, double wheelRadius) {
+        this.wheelRadius = wheelRadius;
+        x = new double[capacity];
+        y = new double[capacity];
+        angle = new double[capacity];
+        velocityX = new double[capacity];
+        velocityY = new double[capacity];
+        rotationRate = new double[capacity];
+        globalX = new double[capacity];
+        globalY = new double[capacity];
+    }
+
+    /**
+     * Adds a stationary robot to the fleet, growing the arrays if needed.
+     *
+     * @param x     starting x location in feet
+     * @param y     starting y location in feet
+     * @param angle starting angle in degrees
+     * @return index of the new robot
+     */
+    public int addRobot(double x, double y, double angle) {
+        if (size == this.x.length) {
+            grow(Math.max(16, size * 2));
+        }
+        int index = size++;
+        this.x[index] = x;
+        this.y[index] = y;
+        this.angle[index] = angle;
+        velocityX[index] = 0;
+        velocityY[index] = 0;
+        rotationRate[index] = 0;
+        return index;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public double getTime() {
+        return time;
+    }
+
+    /**
+     * Sets the velocity and rotation rate of a robot in its own reference frame.
+     *
+     * @param index        robot to update
+     * @param velocityX    x velocity in feet/sec
+     * @param velocityY    y velocity in feet/sec
+     * @param rotationRate rotation rate in degrees/sec
+     */
+    public void setBodyVelocity(int index, double velocityX, double velocityY, double rotationRate) {
+        this.velocityX[index] = velocityX;
+        this.velocityY[index] = velocityY;
+        this.rotationRate[index] = rotationRate;
+    }
+
+    /**
+     * Sets the motion of a robot from its four wheel rates, same as InputMode.CONTROL_WHEELS.
+     *
+     * @param index robot to update
+     * @param w1    upper left wheel rate
+     * @param w2    upper right wheel rate
+     * @param w3    lower left wheel rate
+     * @param w4    lower right wheel rate
+     */
+    public void setWheelRates(int index, double w1, double w2, double w3, double w4) {
+        velocityX[index] = Kinematics.calculateVelocityX(wheelRadius, w1, w2, w3, w4);
+        velocityY[index] = Kinematics.calculateVelocityY(wheelRadius, w1, w2, w3, w4);
+        rotationRate[index] = Kinematics.calculateVehicleRotation(wheelRadius, WHEEL_WIDTH, WHEEL_LENGTH, w1, w2, w3, w4);
+    }
+
+    /**
+     * Sets the motion of every robot from wheel rates, index i of each array is robot i.
+     *
+     * @param w1 upper left wheel rates
+     * @param w2 upper right wheel rates
+     * @param w3 lower left wheel rates
+     * @param w4 lower right wheel rates
+     */
+    public void setWheelRates(double[] w1, double[] w2, double[] w3, double[] w4) {
+        Kinematics.calculateBodyVelocities(wheelRadius, WHEEL_WIDTH, WHEEL_LENGTH, w1, w2, w3, w4,
+                velocityX, velocityY, rotationRate, 0, size);
+    }
+
+    /**
+     * Calculates the wheel rates of every robot, index i of each array is robot i.
+     *
+     * @param w1 upper left wheel rates, output
+     * @param w2 upper right wheel rates, output
+     * @param w3 lower left wheel rates, output
+     * @param w4 lower right wheel rates, output
+     */
+    public void getWheelRates(double[] w1, double[] w2, double[] w3, double[] w4) {
+        Kinematics.calculateWheelRotations(wheelRadius, WHEEL_WIDTH, WHEEL_LENGTH, velocityX, velocityY, rotationRate,
+                w1, w2, w3, w4, 0, size);
+    }
+
+    /**
+     * Advances every robot by the time delta.
+     *
+     * @param timeDelta time step in seconds
+     */
+    public void step(double timeDelta) {
+        stepRange(timeDelta, 0, size);
+        time += timeDelta;
+    }
+
+    /**
+     * Advances every robot by the time delta, splitting the fleet across the pool.
+     *
+     * @param timeDelta time step in seconds
+     * @param pool      pool to run on
+     */
+    public void step(double timeDelta, ForkJoinPool pool) {
+        if (size <= ROBOTS_PER_TASK) {
+            step(timeDelta);
+            return;
+        }
+        pool.invoke(new StepTask(timeDelta, 0, size));
+        time += timeDelta;
+    }
+
+    /**
+     * Runs a number of fixed steps.
+     *
+     * @param timeDelta time step in seconds
+     * @param steps     number of steps to take
+     */
+    public void step(double timeDelta, int steps) {
+        for (int i = 0; i < steps; i++) {
+            step(timeDelta);
+        }
+    }
+
+    /**
+     * Turns then translates a slice of the fleet, same order as the Simulator.
+     */
+    private void stepRange(double timeDelta, int start, int end) {
+        for (int i = start; i < end; i++) {
+            angle[i] += timeDelta * rotationRate[i];
+        }
+        VelocityEquations.convertYawToGlobalFrame(velocityX, velocityY, angle, globalX, globalY, start, end);
+        for (int i = start; i < end; i++) {
+            x[i] += globalX[i] * timeDelta;
+            y[i] += globalY[i] * timeDelta;
+        }
+    }
+
+    public double getX(int index) {
+        return x[index];
+    }
+
+    public double getY(int index) {
+        return y[index];
+    }
+
+    public double getAngle(int index) {
+        return angle[index];
+    }
+
+    public double getVelocityX(int index) {
+        return velocityX[index];
+    }
+
+    public double getVelocityY(int index) {
+        return velocityY[index];
+    }
+
+    public double getRotationRate(int index) {
+        return rotationRate[index];
+    }
+
+    /**
+     * Copies the state of one robot into a Robot, useful for drawing it.
+     *
+     * @param index robot to copy
+     * @param robot Robot to update
+     */
+    public void copyTo(int index, Robot robot) {
+        robot.setLocation(x[index], y[index]);
+        robot.setAngle(angle[index]);
+        robot.setVelocity(velocityX[index], velocityY[index]);
+        robot.setRotationRate(rotationRate[index]);
+    }
+
+    private void grow(int capacity) {
+        x = Arrays.copyOf(x, capacity);
+        y = Arrays.copyOf(y, capacity);
+        angle = Arrays.copyOf(angle, capacity);
+        velocityX = Arrays.copyOf(velocityX, capacity);
+        velocityY = Arrays.copyOf(velocityY, capacity);
+        rotationRate = Arrays.copyOf(rotationRate, capacity);
+        globalX = new double[capacity];
+        globalY = new double[capacity];
+    }
+
+    /**
+     * Steps a slice of the fleet, splitting in half until the slice is small.
+     */
+    private class StepTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private double timeDelta;
+        private int start;
+        private int end;
+
+        StepTask(double timeDelta, int start, int end) {
+            this.timeDelta = timeDelta;
+            this.start = start;
+            this.end = end;
+        }
+
+        @Override
+        protected void compute() {
+            if (end - start <= ROBOTS_PER_TASK) {
+                stepRange(timeDelta, start, end);
+                return;
+            }
+            int middle = (start + end) >>> 1;
+            invokeAll(new StepTask(timeDelta, start, middle), new StepTask(timeDelta, middle, end));
+        }
+    }
+}
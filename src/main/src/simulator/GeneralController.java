@@ -0,0 +1,58 @@
+package simulator;
+
+import robot.Robot;
+import utilities.FastTrig;
+import utilities.SinCos;
+import utilities.Utils;
+
+/**
+ * Drives the robot along an endless straight line from its starting location while rotating.
+ * Steers at a point one foot further down the line so any drift gets corrected.  Never reaches a goal.
+ * <p/>
+ * Created by CyberPuck on 2026-10-17.
+ */
+public class GeneralController implements MotionController {
+    private double startX;
+    private double startY;
+    // direction of the line, sin and cos are worked out once
+    private double directionSin;
+    private double directionCos;
+    private double speed;
+    private double rotationRate;
+    // sin and cos of the heading to the steering point, reused while the heading holds
+    private SinCos heading = new SinCos();
+
+    public GeneralController(double startX, double startY, double direction, double speed, double rotationRate) {
+        this.startX = startX;
+        this.startY = startY;
+        directionSin = FastTrig.sin(direction);
+        directionCos = FastTrig.cos(direction);
+        this.speed = speed;
+        this.rotationRate = rotationRate;
+    }
+
+    @Override
+    public void update(Robot robot, double elapsed) {
+        double distance = Utils.distanceBetweenPoints(startX, startY, robot.getX(), robot.getY());
+        // same as Utils.calculatePoint, kept inline so no point is allocated
+        double endX = startX + directionSin * (distance + 1) * -1;
+        double endY = startY + directionCos * (distance + 1);
+
+        double angle = Utils.getAngle(robot.getX(), robot.getY(), endX, endY);
+        heading.set(angle - robot.getAngle());
+        double yVel = heading.getCos() * speed;
+        double xVel = heading.getSin() * speed * -1;
+        robot.setVelocity(xVel, yVel);
+        robot.setRotationRate(rotationRate);
+    }
+
+    @Override
+    public boolean isAtGoal() {
+        return false;
+    }
+
+    @Override
+    public double timeToEvent(Robot robot, double horizon) {
+        return horizon;
+    }
+}
@@ -0,0 +1,25 @@
+package simulator;
+
+import robot.Robot;
+
+/**
+ * Moves the robot through one time step while its body frame velocity and rotation rate stay constant.
+ * The Simulator calls it every frame after any course correction.
+ * <p/>
+ * Implementations work in doubles and only trim the robot state to the thousandth at the end of
+ * the step, apart from EulerIntegrator which keeps the original turn then translate order.
+ * <p/>
+ * Created by CyberPuck on 2026-10-17.
+ */
+public interface Integrator {
+    /**
+     * Advances the robot angle and location.
+     *
+     * @param robot        Robot to move
+     * @param xVel         robot frame x velocity in feet/sec
+     * @param yVel         robot frame y velocity in feet/sec
+     * @param rotationRate rotation rate in degrees/sec
+     * @param timeDelta    length of the step in seconds
+     */
+    void step(Robot robot, double xVel, double yVel, double rotationRate, double timeDelta);
+}
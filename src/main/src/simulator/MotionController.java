@@ -0,0 +1,40 @@
+package simulator;
+
+import robot.Robot;
+
+/**
+ * Steers the robot for one input mode.  A controller is built once when the Simulator is created,
+ * with everything it needs from the input already pulled out, then called every time the course is
+ * recalculated.
+ * <p/>
+ * Created by CyberPuck on 2026-10-17.
+ */
+public interface MotionController {
+    /**
+     * Updates the robot velocity and rotation rate to course correct.
+     *
+     * @param robot   Robot to update
+     * @param elapsed time since the last update in seconds
+     */
+    void update(Robot robot, double elapsed);
+
+    /**
+     * Flag indicating if the controller has reached its goal.
+     *
+     * @return goal reached?
+     */
+    boolean isAtGoal();
+
+    /**
+     * Time until the controller has to react to the robot moving with its current velocity and rotation
+     * rate, like reaching a vertex.  Used by the event driven Simulator.advance to jump straight to it.
+     * Controllers that don't know their events keep the default, which always steps the whole horizon.
+     *
+     * @param robot   Robot at its current pose
+     * @param horizon longest time to look ahead in seconds
+     * @return time until the next event, horizon if there is none before it
+     */
+    default double timeToEvent(Robot robot, double horizon) {
+        return horizon;
+    }
+}
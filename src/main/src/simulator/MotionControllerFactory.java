@@ -0,0 +1,19 @@
+package simulator;
+
+import inputs.RobotInput;
+
+/**
+ * Builds the motion controller for an input, see {@link MotionControllers} for registering one.
+ * <p/>
+ * Created by CyberPuck on 2026-10-17.
+ */
+public interface MotionControllerFactory {
+    /**
+     * Creates a controller for the input, called after the simulator has planned the path.
+     *
+     * @param input     Input of the robot
+     * @param simulator Simulator the controller will run in, gives access to the path and speed
+     * @return controller for the input
+     */
+    MotionController create(RobotInput input, Simulator simulator);
+}
@@ -0,0 +1,99 @@
+package simulator;
+
+import inputs.*;
+import robot.Robot;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Registry of the motion controller factory used for each input mode.  The built in controllers are
+ * registered up front, registering a factory for a mode replaces the current one for every Simulator
+ * created afterwards.
+ * <p/>
+ * Created by CyberPuck on 2026-10-17.
+ */
+public class MotionControllers {
+    private static Map<InputMode, MotionControllerFactory> factories = new EnumMap<>(InputMode.class);
+
+    static {
+        register(InputMode.CONTROL_WHEELS, new MotionControllerFactory() {
+            @Override
+            public MotionController create(RobotInput input, Simulator simulator) {
+                WheelInput wi = (WheelInput) input;
+                return new WheelController(simulator.getWheelRadius(), Simulator.ROBOT_LENGTH / 2, Simulator.ROBOT_HEIGHT / 2,
+                        wi.getWheelOne(), wi.getWheelTwo(), wi.getWheelThree(), wi.getWheelFour());
+            }
+        });
+        register(InputMode.CONTROL_GENERAL, new MotionControllerFactory() {
+            @Override
+            public MotionController create(RobotInput input, Simulator simulator) {
+                GeneralInput gi = (GeneralInput) input;
+                return new GeneralController(gi.getStartLocation().getX(), gi.getStartLocation().getY(),
+                        gi.getDirection(), simulator.getSpeed(), gi.getRotation());
+            }
+        });
+        // all of the path following inputs hold the rotation rate worked out when the path was planned
+        MotionControllerFactory vertexFactory = new MotionControllerFactory() {
+            @Override
+            public MotionController create(RobotInput input, Simulator simulator) {
+                return new VertexController(simulator.getTrajectory(), simulator.getSpeed(),
+                        simulator.getRobot().getRotationRate());
+            }
+        };
+        register(InputMode.POINT, vertexFactory);
+        register(InputMode.PATH_RECTANGLE, vertexFactory);
+        register(InputMode.PATH_CIRCLE, vertexFactory);
+        register(InputMode.PATH_FIGURE_EIGHT, vertexFactory);
+    }
+
+    /**
+     * Sets the factory used for a mode.
+     *
+     * @param mode    input mode
+     * @param factory factory to build controllers for the mode
+     */
+    public static synchronized void register(InputMode mode, MotionControllerFactory factory) {
+        factories.put(mode, factory);
+    }
+
+    /**
+     * Gets the factory for a mode.
+     *
+     * @param mode input mode
+     * @return factory for the mode, null if none is registered
+     */
+    public static synchronized MotionControllerFactory get(InputMode mode) {
+        return factories.get(mode);
+    }
+
+    /**
+     * Creates the controller for an input.
+     *
+     * @param input     Input of the robot
+     * @param simulator Simulator the controller will run in
+     * @return controller, one that does nothing if the mode has no factory
+     */
+    static MotionController create(RobotInput input, Simulator simulator) {
+        MotionControllerFactory factory = get(input.getMode());
+        if (factory == null) {
+            System.err.println("Not implemented");
+            return new MotionController() {
+                @Override
+                public void update(Robot robot, double elapsed) {
+                }
+
+                @Override
+                public boolean isAtGoal() {
+                    return false;
+                }
+
+                @Override
+                public double timeToEvent(Robot robot, double horizon) {
+                    return horizon;
+                }
+            };
+        }
+        return factory.create(input, simulator);
+    }
+}
@@ -0,0 +1,338 @@
+package simulator;
+
+import inputs.*;
+import robot.Robot;
+import utilities.Point;
+import utilities.Utils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Expands a base input and ranges for speed, time, radius, inclination and rotation rate into
+ * every combination, then runs them headless across all cores on a fork-join pool.
+ * Parameters without a range keep the value of the base input.
+ * <p/>
+ * Supports PointInput, CirclePathInput, RectanglePathInput and FigureEightPathInput. Radius only applies
+ * to circles and figure eights (the far radius keeps its ratio to the close one) and inclination only
+ * applies to the path inputs, ranges for inputs without them are rejected.  Rotation rate can't be swept
+ * for points, they turn to the end orientation over the time given.  Speed is turned into a time to complete the path, so speed and time can't
+ * both be swept.
+ * <p/>
+ * Created by CyberPuck on 2026-10-17.
+ */
+public class ParameterSweep {
+    // number of scenarios a single fork-join task runs before it stops splitting
+    private static int SCENARIOS_PER_TASK = 8;
+
+    private RobotInput baseInput;
+    private double wheelRadius;
+    private BatchRunner runner = new BatchRunner();
+    // starting pose of the robot for every scenario
+    private Point startLocation = new Point(0, 0);
+    private double startAngle = 0.0;
+    // parameter ranges, null means use the value from the base input
+    private SweepRange speed;
+    private SweepRange time;
+    private SweepRange radius;
+    private SweepRange inclination;
+    private SweepRange rotationRate;
+
+    public ParameterSweep(RobotInput baseInput, double wheelRadius) {
+        switch (baseInput.getMode()) {
+            case POINT:
+            case PATH_CIRCLE:
+            case PATH_RECTANGLE:
+            case PATH_FIGURE_EIGHT:
+                break;
+            default:
+                throw new IllegalArgumentException(baseInput.getMode() + " can't be swept");
+        }
+        this.baseInput = baseInput;
+        this.wheelRadius = wheelRadius;
+    }
+
+    public void setRunner(BatchRunner runner) {
+        this.runner = runner;
+    }
+
+    public void setStartLocation(Point startLocation) {
+        this.startLocation = startLocation;
+    }
+
+    public void setStartAngle(double startAngle) {
+        this.startAngle = startAngle;
+    }
+
+    public void setSpeed(SweepRange speed) {
+        this.speed = speed;
+    }
+
+    public void setTime(SweepRange time) {
+        this.time = time;
+    }
+
+    /**
+     * Sets the radii to sweep.  Only circles and figure eights have a radius, sweeping it for points or
+     * rectangles would only repeat the same run.
+     *
+     * @param radius range of radii, null to use the base input's
+     * @throws IllegalArgumentException if the base input is a PointInput or RectanglePathInput
+     */
+    public void setRadius(SweepRange radius) {
+        if (radius != null && (baseInput.getMode() == InputMode.POINT || baseInput.getMode() == InputMode.PATH_RECTANGLE)) {
+            throw new IllegalArgumentException(baseInput.getMode() + " inputs don't have a radius, only circles and figure eights do");
+        }
+        this.radius = radius;
+    }
+
+    /**
+     * Sets the inclinations to sweep.  Point inputs drive straight to their end point and have no
+     * inclination, so sweeping it would only repeat the same run.
+     *
+     * @param inclination range of inclinations, null to use the base input's
+     * @throws IllegalArgumentException if the base input is a PointInput
+     */
+    public void setInclination(SweepRange inclination) {
+        if (inclination != null && baseInput.getMode() == InputMode.POINT) {
+            throw new IllegalArgumentException("Point inputs don't have an inclination, only the path inputs do");
+        }
+        this.inclination = inclination;
+    }
+
+    /**
+     * Sets the rotation rates to sweep.  Point inputs turn at whatever rate reaches the end orientation in
+     * the time given and never read their rotation rate, so sweeping it would only repeat the same run.
+     *
+     * @param rotationRate range of rotation rates, null to use the base input's
+     * @throws IllegalArgumentException if the base input is a PointInput
+     */
+    public void setRotationRate(SweepRange rotationRate) {
+        if (rotationRate != null && baseInput.getMode() == InputMode.POINT) {
+            throw new IllegalArgumentException("Point inputs don't use the rotation rate, sweep time or speed instead");
+        }
+        this.rotationRate = rotationRate;
+    }
+
+    /**
+     * Number of scenarios the sweep will run.
+     *
+     * @return product of the range sizes
+     */
+    public int getScenarioCount() {
+        return sizeOf(speed) * sizeOf(time) * sizeOf(radius) * sizeOf(inclination) * sizeOf(rotationRate);
+    }
+
+    /**
+     * Builds one input for every combination of the parameter ranges.
+     *
+     * @return list of inputs to simulate
+     */
+    public List<RobotInput> expand() {
+        if (speed != null && time != null) {
+            throw new IllegalStateException("Speed and time both set how fast the path is driven, only sweep one");
+        }
+        List<RobotInput> scenarios = new ArrayList<>(getScenarioCount());
+        for (int r = 0; r < sizeOf(radius); r++) {
+            for (int i = 0; i < sizeOf(inclination); i++) {
+                for (int rr = 0; rr < sizeOf(rotationRate); rr++) {
+                    double radiusValue = radius == null ? getBaseRadius() : radius.get(r);
+                    double inclinationValue = inclination == null ? getBaseInclination() : inclination.get(i);
+                    double rotationValue = rotationRate == null ? getBaseRotationRate() : rotationRate.get(rr);
+                    if (speed != null) {
+                        // the path length doesn't depend on time, so build it once to measure
+                        double length = measurePath(createInput(0.0, 0.0, radiusValue, inclinationValue, rotationValue));
+                        for (int s = 0; s < speed.size(); s++) {
+                            double timeValue = length / speed.get(s);
+                            scenarios.add(createInput(timeValue, speed.get(s), radiusValue, inclinationValue, rotationValue));
+                        }
+                    } else {
+                        for (int t = 0; t < sizeOf(time); t++) {
+                            double timeValue = time == null ? getBaseTime() : time.get(t);
+                            scenarios.add(createInput(timeValue, getBaseSpeed(), radiusValue, inclinationValue, rotationValue));
+                        }
+                    }
+                }
+            }
+        }
+        return scenarios;
+    }
+
+    /**
+     * Runs the sweep on the common fork-join pool.
+     *
+     * @return aggregate statistics of every scenario
+     */
+    public SweepStatistics run() {
+        return run(ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Runs the sweep on the given pool.
+     *
+     * @param pool pool to run the scenarios on
+     * @return aggregate statistics of every scenario
+     */
+    public SweepStatistics run(ForkJoinPool pool) {
+        List<RobotInput> scenarios = expand();
+        return pool.invoke(new SweepTask(scenarios, 0, scenarios.size()));
+    }
+
+    /**
+     * Runs a single scenario and adds it to the statistics.
+     *
+     * @param input      scenario to run
+     * @param statistics statistics to update
+     */
+    private void runScenario(RobotInput input, SweepStatistics statistics) {
+        Simulator sim = new Simulator(input, createRobot(), wheelRadius);
+        BatchResult result = runner.run(sim);
+        Point goal = sim.getGoal();
+        double poseError = Double.NaN;
+        if (goal != null) {
+            Robot robot = result.getRobot();
+            poseError = Utils.distanceBetweenPoints(robot.getX(), robot.getY(), goal.getX(), goal.getY());
+        }
+        statistics.add(result, poseError);
+    }
+
+    private Robot createRobot() {
+        Robot robot = new Robot(wheelRadius);
+        robot.setLocation(startLocation);
+        robot.setAngle(startAngle);
+        return robot;
+    }
+
+    private double measurePath(RobotInput input) {
+        return new Simulator(input, createRobot(), wheelRadius).getPathLength();
+    }
+
+    /**
+     * Copies the base input with the given parameters.
+     */
+    private RobotInput createInput(double time, double speed, double radius, double inclination, double rotationRate) {
+        switch (baseInput.getMode()) {
+            case POINT:
+                PointInput pi = (PointInput) baseInput;
+                PointInput point = new PointInput(pi.getEndPoint(), speed, pi.getEndOrientation(), time, rotationRate);
+                point.setWayPoints(pi.getWayPoints());
+                return point;
+            case PATH_CIRCLE:
+                CirclePathInput cpi = (CirclePathInput) baseInput;
+                CirclePathInput circle = new CirclePathInput(cpi.getOrigin(), radius, inclination,
+                        cpi.getEndOrientation(), rotationRate, time);
+                circle.setWayPoints(cpi.getWayPoints());
+                return circle;
+            case PATH_RECTANGLE:
+                RectanglePathInput rpi = (RectanglePathInput) baseInput;
+                RectanglePathInput rectangle = new RectanglePathInput(rpi.getOrigin(), rpi.getTopLength(), rpi.getSideLength(),
+                        inclination, rpi.getEndOrientation(), rotationRate, time);
+                rectangle.setWayPoints(rpi.getWayPoints());
+                return rectangle;
+            default:
+                FigureEightPathInput fepi = (FigureEightPathInput) baseInput;
+                double farRadius = fepi.getRadiusTwo() * radius / fepi.getRadiusOne();
+                FigureEightPathInput figureEight = new FigureEightPathInput(fepi.getOrigin(), radius, farRadius,
+                        inclination, fepi.getEndOrientation(), rotationRate, time);
+                figureEight.setWayPoints(fepi.getWayPoints());
+                return figureEight;
+        }
+    }
+
+    private double getBaseTime() {
+        switch (baseInput.getMode()) {
+            case POINT:
+                return ((PointInput) baseInput).getTime();
+            case PATH_CIRCLE:
+                return ((CirclePathInput) baseInput).getTime();
+            case PATH_RECTANGLE:
+                return ((RectanglePathInput) baseInput).getTime();
+            default:
+                return ((FigureEightPathInput) baseInput).getTime();
+        }
+    }
+
+    private double getBaseSpeed() {
+        if (baseInput.getMode() == InputMode.POINT) {
+            return ((PointInput) baseInput).getSpeed();
+        }
+        return 0.0;
+    }
+
+    private double getBaseRadius() {
+        switch (baseInput.getMode()) {
+            case PATH_CIRCLE:
+                return ((CirclePathInput) baseInput).getRadius();
+            case PATH_FIGURE_EIGHT:
+                return ((FigureEightPathInput) baseInput).getRadiusOne();
+            default:
+                return 0.0;
+        }
+    }
+
+    private double getBaseInclination() {
+        switch (baseInput.getMode()) {
+            case PATH_CIRCLE:
+                return ((CirclePathInput) baseInput).getInclination();
+            case PATH_RECTANGLE:
+                return ((RectanglePathInput) baseInput).getInclination();
+            case PATH_FIGURE_EIGHT:
+                return ((FigureEightPathInput) baseInput).getInclination();
+            default:
+                return 0.0;
+        }
+    }
+
+    private double getBaseRotationRate() {
+        switch (baseInput.getMode()) {
+            case POINT:
+                return ((PointInput) baseInput).getRotationRate();
+            case PATH_CIRCLE:
+                return ((CirclePathInput) baseInput).getRotationRate();
+            case PATH_RECTANGLE:
+                return ((RectanglePathInput) baseInput).getRotationRate();
+            default:
+                return ((FigureEightPathInput) baseInput).getRotationRate();
+        }
+    }
+
+    private static int sizeOf(SweepRange range) {
+        return range == null ? 1 : range.size();
+    }
+
+    /**
+     * Splits the scenario list in half until it is small enough to run directly.
+     */
+    private class SweepTask extends RecursiveTask<SweepStatistics> {
+        private static final long serialVersionUID = 1L;
+
+        private List<RobotInput> scenarios;
+        private int start;
+        private int end;
+
+        SweepTask(List<RobotInput> scenarios, int start, int end) {
+            this.scenarios = scenarios;
+            this.start = start;
+            this.end = end;
+        }
+
+        @Override
+        protected SweepStatistics compute() {
+            if (end - start <= SCENARIOS_PER_TASK) {
+                SweepStatistics statistics = new SweepStatistics();
+                for (int i = start; i < end; i++) {
+                    runScenario(scenarios.get(i), statistics);
+                }
+                return statistics;
+            }
+            int middle = (start + end) >>> 1;
+            SweepTask left = new SweepTask(scenarios, start, middle);
+            left.fork();
+            SweepStatistics statistics = new SweepTask(scenarios, middle, end).compute();
+            statistics.merge(left.join());
+            return statistics;
+        }
+    }
+}
@@ -0,0 +1,169 @@
+package simulator;
+
+import robot.Robot;
+
+/**
+ * Immutable copy of the robot state after a simulation step.  Handed from the simulation thread to the
+ * UI, so the UI never touches the robot the simulator is moving.
+ * <p/>
+ * Created by CyberPuck on 2026-10-17.
+ */
+public class RobotSnapshot {
+    // counts up by one every step, lets a reader tell if anything changed
+    private final long sequence;
+    // simulated time in seconds
+    private final double time;
+    // System.nanoTime() the state belongs to, used to interpolate between steps
+    private final long wallTime;
+    // GRF location in feet
+    private final double x;
+    private final double y;
+    // angle in degrees
+    private final double angle;
+    // velocity in the robot reference frame in feet/sec
+    private final double velocityX;
+    private final double velocityY;
+    // rotation rate in degrees/sec
+    private final double rotationRate;
+    // flag indicating if the simulator reached its goal
+    private final boolean atGoal;
+    // state one step earlier, null if there isn't one.  Its own previous is always null.
+    private final RobotSnapshot previous;
+
+    /**
+     * Copies the robot state.
+     *
+     * @param sequence step number
+     * @param time     simulated time in seconds
+     * @param wallTime System.nanoTime() the state belongs to
+     * @param robot    robot to copy
+     * @param atGoal   goal reached?
+     */
+    public RobotSnapshot(long sequence, double time, long wallTime, Robot robot, boolean atGoal) {
+        this.sequence = sequence;
+        this.time = time;
+        this.wallTime = wallTime;
+        this.x = robot.getX();
+        this.y = robot.getY();
+        this.angle = robot.getAngle();
+        this.velocityX = robot.getVelocityX();
+        this.velocityY = robot.getVelocityY();
+        this.rotationRate = robot.getRotationRate();
+        this.atGoal = atGoal;
+        this.previous = null;
+    }
+
+    private RobotSnapshot(RobotSnapshot current, RobotSnapshot previous) {
+        this.sequence = current.sequence;
+        this.time = current.time;
+        this.wallTime = current.wallTime;
+        this.x = current.x;
+        this.y = current.y;
+        this.angle = current.angle;
+        this.velocityX = current.velocityX;
+        this.velocityY = current.velocityY;
+        this.rotationRate = current.rotationRate;
+        this.atGoal = current.atGoal;
+        this.previous = previous;
+    }
+
+    /**
+     * Copy of this snapshot that also carries the step before it, so a reader gets both states to
+     * interpolate between from one read.  Only one step is kept, snapshots never chain.
+     *
+     * @param previous state one step earlier, its own previous is dropped
+     * @return snapshot with the previous state
+     */
+    public RobotSnapshot withPrevious(RobotSnapshot previous) {
+        if (previous != null && previous.previous != null) {
+            previous = new RobotSnapshot(previous, null);
+        }
+        return new RobotSnapshot(this, previous);
+    }
+
+    public long getSequence() {
+        return sequence;
+    }
+
+    public double getTime() {
+        return time;
+    }
+
+    public double getX() {
+        return x;
+    }
+
+    public double getY() {
+        return y;
+    }
+
+    public double getAngle() {
+        return angle;
+    }
+
+    public double getVelocityX() {
+        return velocityX;
+    }
+
+    public double getVelocityY() {
+        return velocityY;
+    }
+
+    public double getRotationRate() {
+        return rotationRate;
+    }
+
+    public long getWallTime() {
+        return wallTime;
+    }
+
+    public boolean isAtGoal() {
+        return atGoal;
+    }
+
+    public RobotSnapshot getPrevious() {
+        return previous;
+    }
+
+    /**
+     * How far real time has moved from the previous step towards this one, the classic fixed step
+     * accumulator over the step size.  The state drawn at a moment is then previous + (this - previous) * alpha.
+     *
+     * @param now System.nanoTime() of the frame
+     * @return 0 - 1, 1 if there is no previous step
+     */
+    public double getAlpha(long now) {
+        if (previous == null || wallTime <= previous.wallTime) {
+            return 1.0;
+        }
+        double alpha = (double) (now - wallTime) / (wallTime - previous.wallTime);
+        return Math.max(0.0, Math.min(1.0, alpha));
+    }
+
+    /**
+     * Moves a robot to the snapshot state, useful for drawing it.
+     *
+     * @param robot Robot to update
+     */
+    public void copyTo(Robot robot) {
+        robot.setLocation(x, y);
+        robot.setAngle(angle);
+        robot.setVelocity(velocityX, velocityY);
+        robot.setRotationRate(rotationRate);
+    }
+
+    @Override
+    public String toString() {
+        return "RobotSnapshot{" +
+                "sequence=" + sequence +
+                ", time=" + time +
+                ", x=" + x +
+                ", y=" + y +
+                ", angle=" + angle +
+                ", velocityX=" + velocityX +
+                ", velocityY=" + velocityY +
+                ", rotationRate=" + rotationRate +
+                ", atGoal=" + atGoal +
+                '}';
+    }
+}
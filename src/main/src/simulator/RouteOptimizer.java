@@ -0,0 +1,491 @@
+package simulator;
+
+import utilities.Point;
+import utilities.PointGrid;
+import utilities.Utils;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Reorders way points to shorten the path from a start point, through every way point, to an end point.
+ * A nearest neighbour route is built first and then improved with 2-opt (reverse a stretch of the route)
+ * and Or-opt (move one to three way points somewhere else) moves until nothing improves or the time
+ * budget runs out.  The budget starts before the nearest neighbour route, if building it uses the whole
+ * budget the rest of the way points are ordered in strips and the route isn't improved.
+ * <p/>
+ * Moves are only tried towards the closest few way points of each way point.  The route is cut into
+ * stretches that are improved in parallel on a fork-join pool, the cuts are then shifted so the joins get
+ * improved, and a final pass runs over the whole route.
+ * <p/>
+ * Created by CyberPuck on 2026-10-17.
+ */
+public class RouteOptimizer {
+    // number of closest way points moves are tried towards
+    private static int NEIGHBORS = 8;
+    // longest stretch of way points an Or-opt move picks up
+    private static int MAX_SEGMENT = 3;
+    // smallest stretch of the route improved by a single fork-join task
+    private static int POINTS_PER_TASK = 512;
+    // smallest improvement worth making, in feet, stops rounding errors from looping forever
+    private static double EPSILON = 1e-9;
+    // moves tried between checks of the clock
+    private static int CLOCK_CHECK = 256;
+    // nearest way point searches between checks of the clock, each can scan a crowded grid cell
+    private static int NEAREST_CHECK = 16;
+
+    // time allowed to order the route, in seconds, building the starting route counts towards it
+    private double timeBudget;
+
+    // x and y of every node, 0 is the start, 1 - n the way points and n + 1 the end
+    private double[] x;
+    private double[] y;
+    // closest nodes to each node, NEIGHBORS per node
+    private int[] neighbors;
+    // node at each position of the route and the position of each node
+    private int[] route;
+    private int[] position;
+    // System.nanoTime() building and improving the route have to stop at
+    private long deadline;
+
+    public RouteOptimizer() {
+        this(0.5);
+    }
+
+    public RouteOptimizer(double timeBudget) {
+        this.timeBudget = timeBudget;
+    }
+
+    public double getTimeBudget() {
+        return timeBudget;
+    }
+
+    public void setTimeBudget(double timeBudget) {
+        this.timeBudget = timeBudget;
+    }
+
+    /**
+     * Orders the way points on the common fork-join pool.
+     *
+     * @param start     where the robot starts
+     * @param wayPoints way points to visit
+     * @param end       where the robot has to finish
+     * @return the way points in the order to visit them
+     */
+    public List<Point> optimize(Point start, List<Point> wayPoints, Point end) {
+        return optimize(start, wayPoints, end, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Orders the way points on the given pool.
+     *
+     * @param start     where the robot starts
+     * @param wayPoints way points to visit
+     * @param end       where the robot has to finish
+     * @param pool      pool to improve the route on
+     * @return the way points in the order to visit them
+     */
+    public synchronized List<Point> optimize(Point start, List<Point> wayPoints, Point end, ForkJoinPool pool) {
+        deadline = System.nanoTime() + (long) (timeBudget * 1e9);
+        int n = wayPoints.size();
+        x = new double[n + 2];
+        y = new double[n + 2];
+        x[0] = start.getX();
+        y[0] = start.getY();
+        for (int i = 0; i < n; i++) {
+            x[i + 1] = wayPoints.get(i).getX();
+            y[i + 1] = wayPoints.get(i).getY();
+        }
+        x[n + 1] = end.getX();
+        y[n + 1] = end.getY();
+
+        buildNearestNeighborRoute(pool);
+        if (n > 2 && System.nanoTime() < deadline) {
+            improve(pool);
+        }
+
+        List<Point> ordered = new ArrayList<>(n);
+        for (int i = 1; i <= n; i++) {
+            ordered.add(wayPoints.get(route[i] - 1));
+        }
+        x = null;
+        y = null;
+        neighbors = null;
+        route = null;
+        position = null;
+        return ordered;
+    }
+
+    /**
+     * Length of the path through the nodes in route order.
+     *
+     * @param start     where the robot starts
+     * @param wayPoints way points in the order they are visited
+     * @param end       where the robot has to finish
+     * @return length in feet
+     */
+    public static double routeLength(Point start, List<Point> wayPoints, Point end) {
+        double length = 0.0;
+        Point last = start;
+        for (int i = 0; i < wayPoints.size(); i++) {
+            length += Utils.distanceBetweenPoints(last, wayPoints.get(i));
+            last = wayPoints.get(i);
+        }
+        return length + Utils.distanceBetweenPoints(last, end);
+    }
+
+    /**
+     * Finds the neighbour lists and builds the starting route by always driving to the closest way
+     * point not visited yet.  If the time budget runs out first the rest of the way points are put in
+     * strips instead and the neighbour lists may be left unfinished, improve must not run then.
+     */
+    private void buildNearestNeighborRoute(ForkJoinPool pool) {
+        int nodes = x.length;
+        double minX = Double.POSITIVE_INFINITY;
+        double minY = Double.POSITIVE_INFINITY;
+        double maxX = Double.NEGATIVE_INFINITY;
+        double maxY = Double.NEGATIVE_INFINITY;
+        for (int i = 0; i < nodes; i++) {
+            minX = Math.min(minX, x[i]);
+            minY = Math.min(minY, y[i]);
+            maxX = Math.max(maxX, x[i]);
+            maxY = Math.max(maxY, y[i]);
+        }
+        PointGrid grid = new PointGrid(minX, minY, maxX, maxY, nodes);
+        for (int i = 0; i < nodes; i++) {
+            grid.add(x[i], y[i]);
+        }
+        neighbors = new int[nodes * NEIGHBORS];
+        pool.invoke(new NeighborTask(grid, 0, nodes));
+
+        // the start and end are fixed, only way points are left in the grid to pick from
+        route = new int[nodes];
+        position = new int[nodes];
+        grid.remove(0);
+        grid.remove(nodes - 1);
+        route[nodes - 1] = nodes - 1;
+        position[nodes - 1] = nodes - 1;
+        boolean[] visited = new boolean[nodes];
+        int current = 0;
+        int i = 1;
+        for (; i < nodes - 1; i++) {
+            route[i - 1] = current;
+            position[current] = i - 1;
+            visited[current] = true;
+            if (i % NEAREST_CHECK == 0 && System.nanoTime() > deadline) {
+                break;
+            }
+            current = grid.nearest(x[current], y[current]);
+            grid.remove(current);
+        }
+        if (i < nodes - 1) {
+            finishInStrips(i, visited, minX, minY, maxX, maxY);
+            return;
+        }
+        route[nodes - 2] = current;
+        position[current] = nodes - 2;
+    }
+
+    /**
+     * Fills the rest of the route when building it ran out of time.  The way points left are visited in
+     * horizontal strips, back and forth, which only needs a sort.
+     *
+     * @param next    first position of the route still empty
+     * @param visited nodes already on the route
+     */
+    private void finishInStrips(int next, boolean[] visited, double minX, double minY, double maxX, double maxY) {
+        int nodes = x.length;
+        int count = nodes - 1 - next;
+        int strips = Math.max(1, (int) Math.sqrt(count / 2.0));
+        double stripHeight = (maxY - minY) / strips;
+        double width = maxX - minX;
+        // strip, place along the strip to 16 bits and node packed in one long, so a plain sort orders them
+        long[] order = new long[count];
+        count = 0;
+        for (int node = 1; node < nodes - 1; node++) {
+            if (!visited[node]) {
+                int strip = stripHeight > 0 ? (int) Math.min(strips - 1, (y[node] - minY) / stripHeight) : 0;
+                double along = width > 0 ? (x[node] - minX) / width : 0.0;
+                long place = (long) ((strip % 2 == 0 ? along : 1.0 - along) * 0xFFFF);
+                order[count++] = ((long) strip << 47) | (place << 31) | node;
+            }
+        }
+        Arrays.sort(order);
+        for (int i = 0; i < count; i++) {
+            int node = (int) (order[i] & Integer.MAX_VALUE);
+            route[next + i] = node;
+            position[node] = next + i;
+        }
+    }
+
+    /**
+     * Improves the route in parallel stretches, then with shifted stretches, then as a whole.
+     */
+    private void improve(ForkJoinPool pool) {
+        int last = route.length - 1;
+        int stretch = Math.max(POINTS_PER_TASK, last / (pool.getParallelism() * 4) + 1);
+        if (stretch < last) {
+            pool.invoke(new ImproveTask(0, last, stretch, 0));
+            pool.invoke(new ImproveTask(0, last, stretch, stretch / 2));
+        }
+        improve(0, last);
+    }
+
+    /**
+     * Applies improving moves between two fixed positions of the route until none are left or time runs out.
+     * Only nodes strictly between the two positions are moved, so stretches that don't overlap can be
+     * improved at the same time.
+     *
+     * @param first position that stays fixed at the start of the stretch
+     * @param last  position that stays fixed at the end of the stretch
+     */
+    private void improve(int first, int last) {
+        boolean improved = true;
+        int checks = 0;
+        while (improved) {
+            improved = false;
+            for (int p = first; p < last; p++) {
+                if (++checks % CLOCK_CHECK == 0 && System.nanoTime() > deadline) {
+                    return;
+                }
+                if (twoOpt(p, first, last) || orOpt(p, first, last)) {
+                    improved = true;
+                }
+            }
+        }
+    }
+
+    /**
+     * Tries to replace an edge next to the node at a position with an edge to one of its neighbours,
+     * reversing the stretch of route in between.
+     *
+     * @return true if the route changed
+     */
+    private boolean twoOpt(int p, int first, int last) {
+        int a = route[p];
+        // edge after a, replaced with a - c and the two nodes after them
+        int next = route[p + 1];
+        double current = distance(a, next);
+        for (int i = a * NEIGHBORS; i < (a + 1) * NEIGHBORS; i++) {
+            int c = neighbors[i];
+            double joined = distance(a, c);
+            if (joined >= current) {
+                break;
+            }
+            int q = position[c];
+            if (q < first || q >= last || q == p) {
+                continue;
+            }
+            int cNext = route[q + 1];
+            if (current + distance(c, cNext) - joined - distance(next, cNext) > EPSILON) {
+                reverse(Math.min(p, q) + 1, Math.max(p, q));
+                return true;
+            }
+        }
+        if (p == first) {
+            return false;
+        }
+        // edge before a, replaced with c - a and the two nodes before them
+        int previous = route[p - 1];
+        current = distance(previous, a);
+        for (int i = a * NEIGHBORS; i < (a + 1) * NEIGHBORS; i++) {
+            int c = neighbors[i];
+            double joined = distance(a, c);
+            if (joined >= current) {
+                break;
+            }
+            int q = position[c];
+            if (q <= first || q > last || q == p) {
+                continue;
+            }
+            int cPrevious = route[q - 1];
+            if (current + distance(cPrevious, c) - joined - distance(previous, cPrevious) > EPSILON) {
+                reverse(Math.min(p, q), Math.max(p, q) - 1);
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Tries to move a short stretch of way points, starting at a position, next to a neighbour of either
+     * end of the stretch, flipping it if that is shorter.
+     *
+     * @return true if the route changed
+     */
+    private boolean orOpt(int p, int first, int last) {
+        for (int length = 1; length <= MAX_SEGMENT; length++) {
+            int end = p + length - 1;
+            if (p <= first || end >= last) {
+                return false;
+            }
+            int head = route[p];
+            int tail = route[end];
+            int before = route[p - 1];
+            int after = route[end + 1];
+            double removed = distance(before, head) + distance(tail, after) - distance(before, after);
+            if (removed <= EPSILON) {
+                continue;
+            }
+            for (int side = 0; side < 2; side++) {
+                int node = side == 0 ? head : tail;
+                for (int i = node * NEIGHBORS; i < (node + 1) * NEIGHBORS; i++) {
+                    int c = neighbors[i];
+                    if (distance(node, c) >= removed) {
+                        break;
+                    }
+                    int q = position[c];
+                    // the edge on either side of the neighbour
+                    for (int edge = q - 1; edge <= q; edge++) {
+                        if (edge < first || edge >= last || (edge >= p - 1 && edge <= end)) {
+                            continue;
+                        }
+                        int u = route[edge];
+                        int v = route[edge + 1];
+                        double base = distance(u, v);
+                        double forward = distance(u, head) + distance(tail, v) - base;
+                        double flipped = distance(u, tail) + distance(head, v) - base;
+                        if (removed - Math.min(forward, flipped) > EPSILON) {
+                            moveSegment(p, end, edge, flipped < forward);
+                            return true;
+                        }
+                    }
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Reverses the route between two positions, inclusive.
+     */
+    private void reverse(int from, int to) {
+        while (from < to) {
+            int node = route[from];
+            route[from] = route[to];
+            route[to] = node;
+            position[route[from]] = from;
+            position[route[to]] = to;
+            from++;
+            to--;
+        }
+    }
+
+    /**
+     * Moves the route between two positions, inclusive, in between the nodes at an edge and the one after it.
+     */
+    private void moveSegment(int from, int to, int edge, boolean flip) {
+        int length = to - from + 1;
+        int[] segment = new int[length];
+        for (int i = 0; i < length; i++) {
+            segment[i] = route[flip ? to - i : from + i];
+        }
+        int start;
+        if (edge > to) {
+            // shift the nodes between the segment and the edge back over the gap
+            for (int i = to + 1; i <= edge; i++) {
+                route[i - length] = route[i];
+                position[route[i - length]] = i - length;
+            }
+            start = edge - length + 1;
+        } else {
+            for (int i = from - 1; i > edge; i--) {
+                route[i + length] = route[i];
+                position[route[i + length]] = i + length;
+            }
+            start = edge + 1;
+        }
+        for (int i = 0; i < length; i++) {
+            route[start + i] = segment[i];
+            position[segment[i]] = start + i;
+        }
+    }
+
+    private double distance(int a, int b) {
+        return Utils.distanceBetweenPoints(x[a], y[a], x[b], y[b]);
+    }
+
+    /**
+     * Fills the neighbour lists for a range of nodes, the grid is only read so ranges can run at once.
+     */
+    private class NeighborTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private PointGrid grid;
+        private int start;
+        private int end;
+
+        NeighborTask(PointGrid grid, int start, int end) {
+            this.grid = grid;
+            this.start = start;
+            this.end = end;
+        }
+
+        @Override
+        protected void compute() {
+            if (end - start <= POINTS_PER_TASK) {
+                int[] closest = new int[NEIGHBORS + 1];
+                for (int node = start; node < end; node++) {
+                    if ((node - start) % NEAREST_CHECK == 0 && System.nanoTime() > deadline) {
+                        // out of time, the route won't be improved so the lists aren't needed
+                        return;
+                    }
+                    int found = grid.nearest(x[node], y[node], NEIGHBORS + 1, closest);
+                    int count = 0;
+                    for (int i = 0; i < found && count < NEIGHBORS; i++) {
+                        if (closest[i] != node) {
+                            neighbors[node * NEIGHBORS + count++] = closest[i];
+                        }
+                    }
+                    // pad short lists with the furthest neighbour, the distance check stops at it anyway
+                    for (; count < NEIGHBORS; count++) {
+                        neighbors[node * NEIGHBORS + count] = count == 0 ? node : neighbors[node * NEIGHBORS + count - 1];
+                    }
+                }
+                return;
+            }
+            int middle = (start + end) >>> 1;
+            invokeAll(new NeighborTask(grid, start, middle), new NeighborTask(grid, middle, end));
+        }
+    }
+
+    /**
+     * Improves the stretches of route between cut positions, each stretch keeps its ends fixed so
+     * different stretches never move the same nodes.  Neighbours in other stretches are skipped by
+     * the position check, any position read for them is outside this stretch.
+     */
+    private class ImproveTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private int first;
+        private int last;
+        private int stretch;
+        private int offset;
+
+        ImproveTask(int first, int last, int stretch, int offset) {
+            this.first = first;
+            this.last = last;
+            this.stretch = stretch;
+            this.offset = offset;
+        }
+
+        @Override
+        protected void compute() {
+            // cuts are at offset + k * stretch, split on a cut so the fixed ends line up
+            int cuts = (last - first) / stretch;
+            if (cuts <= 1) {
+                improve(first, last);
+                return;
+            }
+            int middle = offset + ((first - offset) / stretch + cuts / 2) * stretch;
+            if (middle <= first || middle >= last) {
+                improve(first, last);
+                return;
+            }
+            invokeAll(new ImproveTask(first, middle, stretch, offset), new ImproveTask(middle, last, stretch, offset));
+        }
+    }
+}
@@ -0,0 +1,34 @@
+package simulator;
+
+import robot.Robot;
+import utilities.FixedPoint;
+import utilities.SinCos;
+
+/**
+ * Classic fourth order Runge-Kutta.  The angle moves linearly through the step and the GRF velocity
+ * only depends on the angle, so the two middle stages are equal and the step works out to Simpson's
+ * rule over the start, middle and end headings.  Error per step is O(dt^5) against Euler's O(dt^2).
+ * <p/>
+ * Created by CyberPuck on 2026-10-17.
+ */
+public class RungeKutta4Integrator implements Integrator {
+    private SinCos start = new SinCos();
+    private SinCos middle = new SinCos();
+    private SinCos end = new SinCos();
+
+    @Override
+    public void step(Robot robot, double xVel, double yVel, double rotationRate, double timeDelta) {
+        double angle = robot.getAngle();
+        double turn = timeDelta * rotationRate;
+        start.set(angle);
+        middle.set(angle + turn / 2);
+        end.set(angle + turn);
+        // k1, k2 = k3 and k4 of the GRF velocity, weighted 1, 4 and 1 (2 + 2 for the middle stages)
+        double cos = start.getCos() + 4 * middle.getCos() + end.getCos();
+        double sin = start.getSin() + 4 * middle.getSin() + end.getSin();
+        double newX = robot.getX() + timeDelta / 6 * (cos * xVel - sin * yVel);
+        double newY = robot.getY() + timeDelta / 6 * (sin * xVel + cos * yVel);
+        robot.setQuantizedAngle(FixedPoint.quantize(angle + turn));
+        robot.setQuantizedLocation(FixedPoint.quantize(newX), FixedPoint.quantize(newY));
+    }
+}
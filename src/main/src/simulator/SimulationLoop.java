@@ -0,0 +1,120 @@
+package simulator;
+
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Runs a simulator in real time on its own thread with a fixed time step.  Real time is collected in an
+ * accumulator and the simulator is stepped by exactly one time step for every step's worth of it, so
+ * results don't depend on the frame rate, the scheduler or GC pauses.
+ * <p/>
+ * After every step the robot state is published as a RobotSnapshot in a single latest value slot,
+ * readers only ever see the newest one and never block the simulation.  Each snapshot also carries the
+ * step before it, so the renderer can interpolate between the two.  The simulation thread is the only
+ * one that touches the simulator once started.
+ * <p/>
+ * Created by CyberPuck on 2026-10-17.
+ */
+public class SimulationLoop implements Runnable {
+    // positions are trimmed to the thousandth of a foot every step, so a much smaller step stops slow
+    // robots from moving at all.  120Hz keeps 0.06 ft/s moving and still gets every input to its goal.
+    private static double DEFAULT_TIME_STEP = 1.0 / 120.0;
+    // longest stretch of real time caught up on after a stall, anything longer is dropped
+    private static double MAX_LAG = 0.25;
+
+    private Simulator simulator;
+    // newest state, written only by the simulation thread
+    private AtomicReference<RobotSnapshot> latest = new AtomicReference<>();
+    private volatile boolean running;
+    // simulated seconds per step
+    private double timeStep = DEFAULT_TIME_STEP;
+    private Thread thread;
+
+    /**
+     * Wraps a simulator, the first snapshot is its starting state.
+     *
+     * @param simulator simulator to run, not to be touched by anything else after start
+     */
+    public SimulationLoop(Simulator simulator) {
+        this.simulator = simulator;
+        latest.set(new RobotSnapshot(0, 0.0, System.nanoTime(), simulator.getRobot(), simulator.isAtGoal()));
+    }
+
+    public double getTimeStep() {
+        return timeStep;
+    }
+
+    /**
+     * Sets the fixed physics step, must be set before starting.
+     *
+     * @param timeStep simulated seconds per step
+     */
+    public void setTimeStep(double timeStep) {
+        if (!(timeStep > 0)) {
+            throw new IllegalArgumentException("Time step must be positive: " + timeStep);
+        }
+        this.timeStep = timeStep;
+    }
+
+    /**
+     * Starts the simulation thread.
+     */
+    public void start() {
+        running = true;
+        thread = new Thread(this, "simulation");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    /**
+     * Asks the simulation thread to stop after its current step, doesn't wait for it.
+     */
+    public void stop() {
+        running = false;
+    }
+
+    public boolean isRunning() {
+        return running;
+    }
+
+    /**
+     * Newest published state, never blocks.
+     *
+     * @return latest snapshot, with the step before it
+     */
+    public RobotSnapshot getLatest() {
+        return latest.get();
+    }
+
+    @Override
+    public void run() {
+        long stepNanos = Math.max(1, Math.round(timeStep * 1000000000.0));
+        long maxLag = Math.round(MAX_LAG * 1000000000.0);
+        // real time the simulator state belongs to, now - clock is the accumulator
+        long clock = System.nanoTime();
+        RobotSnapshot previous = new RobotSnapshot(0, 0.0, clock, simulator.getRobot(), simulator.isAtGoal());
+        long steps = 0;
+        while (running && !simulator.isAtGoal()) {
+            long now = System.nanoTime();
+            if (now - clock > maxLag) {
+                // after a long stall drop the backlog instead of running a burst of steps
+                clock = now - stepNanos;
+            }
+            while (clock + stepNanos <= now && running && !simulator.isAtGoal()) {
+                simulator.calculateNewPosition(timeStep);
+                steps++;
+                clock += stepNanos;
+                // multiply instead of summing so the time doesn't drift over long runs
+                RobotSnapshot current = new RobotSnapshot(steps, steps * timeStep, clock, simulator.getRobot(),
+                        simulator.isAtGoal());
+                latest.lazySet(current.withPrevious(previous));
+                previous = current;
+            }
+            long wait = clock + stepNanos - System.nanoTime();
+            if (wait > 0) {
+                LockSupport.parkNanos(wait);
+            }
+        }
+        running = false;
+    }
+}
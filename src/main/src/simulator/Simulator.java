@@ -1,14 +1,15 @@
 package simulator;
 
 import inputs.*;
-import robot.Kinematics;
 import robot.Robot;
-import robot.VelocityEquations;
 import utilities.Point;
-import utilities.Position;
+import utilities.PointGrid;
+import utilities.Trajectory;
 import utilities.Utils;
 
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
 
 /**
  * This is the simulator class, like highlander there can be only one.
@@ -18,13 +19,16 @@ import java.util.ArrayList;
  * Created by CyberPuck on 2016-02-26.
  */
 public class Simulator {
+    // bump whenever a change to the kinematics, controllers or integrators changes the results of a run,
+    // cached results from older versions are then never used
+    public static final int MODEL_VERSION = 1;
     // robot basics
-    private static double ROBOT_LENGTH = 2;
-    private static double ROBOT_HEIGHT = 4;
+    static double ROBOT_LENGTH = 2;
+    static double ROBOT_HEIGHT = 4;
     // every 100 ms recalculate the course to take
     private static double RECALCULATE_COURSE = 0.1;
-    // distance to start slowing down
-    private static double SLOW_DOWN_DISTANCE = 1.0;
+    // bits of room between neighbouring vertices when ordering way point inserts
+    private static int ORDER_GAP = 24;
     //radius of the wheels
     private double wheelRadius;
     // time since the last velocity and rotation rate recalculation
@@ -33,23 +37,48 @@ public class Simulator {
     private Robot robot;
     // current input for the robot to move
     private RobotInput input;
-    // flag indicating if the goal has been reached
-    private boolean atGoal;
+    // steers the robot for the current input, picked once when the simulator is built
+    private MotionController controller;
     // flag indicating if the simulation can complete in time
     private boolean enoughTime;
-    // Array list of points for complex paths
+    // Array list of points for complex paths, only used while planning
     private ArrayList<Point> pathVertices = new ArrayList<>();
-    // index in the path list
-    private int pathIndex;
+    // planned path compiled from the vertices, starts at the robot starting location
+    private Trajectory trajectory;
     // max/desired speed of the robot
     private double speed;
+    // total distance the robot has to travel, in feet
+    private double pathLength;
+    // moves the robot every frame, explicit Euler unless another one is set
+    private Integrator integrator = new EulerIntegrator();
+    // closed form motion used by the event driven advance
+    private ExactIntegrator exactIntegrator = new ExactIntegrator();
+    // reorders the way points of a point input, null keeps the nearest vertex insertion
+    private RouteOptimizer routeOptimizer;
 
     public Simulator(RobotInput input, Robot robot, double wheelRadius) {
+        this(input, robot, wheelRadius, null);
+    }
+
+    /**
+     * Creates a simulator that orders the way points of a PointInput with the route optimizer, the robot
+     * then visits every way point once on the way to the end point.  Other inputs ignore the optimizer.
+     *
+     * @param input          input of the robot
+     * @param robot          robot to move
+     * @param wheelRadius    radius of the wheels
+     * @param routeOptimizer optimizer for the way points, null to insert them next to the closest vertex
+     */
+    public Simulator(RobotInput input, Robot robot, double wheelRadius, RouteOptimizer routeOptimizer) {
         this.input = input;
+        this.routeOptimizer = routeOptimizer;
         this.robot = robot;
-        enoughTime = initializeRobot(input, this.robot);
-        atGoal = false;
         this.wheelRadius = wheelRadius;
+        enoughTime = initializeRobot(input, this.robot);
+        if (trajectory == null) {
+            compileTrajectory();
+        }
+        controller = MotionControllers.create(input, this);
     }
 
     /**
@@ -67,7 +96,7 @@ public class Simulator {
      * @return goal reached?
      */
     public boolean isAtGoal() {
-        return atGoal;
+        return controller.isAtGoal();
     }
 
     /**
@@ -79,6 +108,75 @@ public class Simulator {
         return enoughTime;
     }
 
+    /**
+     * Final point the robot is driving to.
+     *
+     * @return last path vertex, null if the input has no path (wheel and general control)
+     */
+    public Point getGoal() {
+        if (pathVertices.isEmpty()) {
+            return null;
+        }
+        return pathVertices.get(pathVertices.size() - 1);
+    }
+
+    /**
+     * Vertices of the planned path in the order they are driven to.
+     *
+     * @return read only list of vertices, empty if the input has no path
+     */
+    public List<Point> getPathVertices() {
+        return Collections.unmodifiableList(pathVertices);
+    }
+
+    /**
+     * Planned path, vertex 0 is the starting location of the robot.
+     *
+     * @return compiled path
+     */
+    public Trajectory getTrajectory() {
+        return trajectory;
+    }
+
+    /**
+     * Speed the robot drives at to finish the input in time.
+     *
+     * @return speed in feet/sec
+     */
+    public double getSpeed() {
+        return speed;
+    }
+
+    public double getWheelRadius() {
+        return wheelRadius;
+    }
+
+    public MotionController getController() {
+        return controller;
+    }
+
+    public Integrator getIntegrator() {
+        return integrator;
+    }
+
+    /**
+     * Sets how the robot is moved every frame, higher order integrators stay accurate with larger time deltas.
+     *
+     * @param integrator integrator to use from the next frame
+     */
+    public void setIntegrator(Integrator integrator) {
+        this.integrator = integrator;
+    }
+
+    /**
+     * Total length of the path the robot has to travel.
+     *
+     * @return distance in feet, 0 if the input has no path
+     */
+    public double getPathLength() {
+        return pathLength;
+    }
+
     /**
      * Due to different input classes having different features make sure input variables are added.
      *
@@ -87,7 +185,6 @@ public class Simulator {
      */
     private boolean initializeRobot(RobotInput input, Robot robot) {
         double distance = 0.0;
-        pathIndex = 0;
         switch (input.getMode()) {
             case CONTROL_WHEELS: // Not needed all four wheel rates are read later
                 break;
@@ -98,6 +195,7 @@ public class Simulator {
             case POINT:
                 PointInput pi = (PointInput) input;
                 distance = calculatePointDistance(pi);
+                pathLength = distance;
                 if (!verifyPathCompletion(pi.getTime(), distance)) {
                     return false;
                 }
@@ -108,6 +206,7 @@ public class Simulator {
             case PATH_RECTANGLE:
                 RectanglePathInput rpi = (RectanglePathInput) input;
                 distance = calculateRectangleDistance(rpi);
+                pathLength = distance;
                 if (!verifyPathCompletion(rpi.getTime(), distance)) {
                     return false;
                 }
@@ -117,6 +216,7 @@ public class Simulator {
             case PATH_CIRCLE:
                 CirclePathInput cpi = (CirclePathInput) input;
                 distance = calculateCircleDistance(cpi);
+                pathLength = distance;
                 if (!verifyPathCompletion(cpi.getTime(), distance)) {
                     return false;
                 }
@@ -127,6 +227,7 @@ public class Simulator {
             case PATH_FIGURE_EIGHT:
                 FigureEightPathInput fepi = (FigureEightPathInput) input;
                 distance = calculateFigureEightPath(fepi);
+                pathLength = distance;
                 if (!verifyPathCompletion(fepi.getTime(), distance)) {
                     return false;
                 }
@@ -155,212 +256,40 @@ public class Simulator {
         lastRecalculation += timeDelta;
         // calculate the course
         if (lastRecalculation > RECALCULATE_COURSE) {
+            // update robot velocity settings to course correct
+            controller.update(robot, lastRecalculation);
             // reset last recalculation time
             lastRecalculation = 0.0;
-            // update robot velocity settings to course correct
-            switch (input.getMode()) {
-                case CONTROL_WHEELS:
-                    calculateWheelMovement(input, timeDelta);
-                    break;
-                case CONTROL_GENERAL:
-                    calculateGeneralMovement(input, timeDelta);
-                    break;
-                case POINT:
-                    calculatePointMovement(input, timeDelta);
-                    break;
-                case PATH_RECTANGLE:
-                    calculateRectangleMovement(input, timeDelta);
-                    break;
-                case PATH_CIRCLE:
-                    calculateCircleMovement(input, timeDelta);
-                    break;
-                case PATH_FIGURE_EIGHT:
-                    calculateFigureEightMovement(input, timeDelta);
-                    break;
-                default:
-                    System.err.println("Not implemented");
-            }
         }
         // update the robot position
-        updateRobot(robot.getVelocity().getX(), robot.getVelocity().getY(), robot.getRotationRate(), timeDelta, robot);
-    }
-
-    /**
-     * Based on user input and the time difference calculate the new location, Vs, and angle.
-     *
-     * @param input     User input for wheel rotations
-     * @param timeDelta Difference between last calculation
-     */
-    private void calculateWheelMovement(RobotInput input, double timeDelta) {
-        WheelInput wInput = (WheelInput) input;
-        // Get the wheel rates
-        double w1 = wInput.getWheelOne();
-        double w2 = wInput.getWheelTwo();
-        double w3 = wInput.getWheelThree();
-        double w4 = wInput.getWheelFour();
-        // calculate the velocity and angle rate
-        double rotationRate = Kinematics.calculateVehicleRotation(wheelRadius, ROBOT_LENGTH / 2, ROBOT_HEIGHT / 2, w1, w2, w3, w4);
-        double xVel = Kinematics.calculateVelocityX(wheelRadius, w1, w2, w3, w4);
-        double yVel = Kinematics.calculateVelocityY(wheelRadius, w1, w2, w3, w4);
-        // update the robot components
-        robot.setVelocity(new Point(xVel, yVel));
-        robot.setRotationRate(rotationRate);
-    }
-
-    /**
-     * Based on the direction, speed, and rotation rate calculate the wheel rates and new location.
-     *
-     * @param input     General input
-     * @param timeDelta difference between last calculations
-     */
-    private void calculateGeneralMovement(RobotInput input, double timeDelta) {
-        GeneralInput gi = (GeneralInput) input;
-        double distance = Utils.distanceBetweenPoints(gi.getStartLocation(), robot.getLocation());
-        distance = distance < 0 ? distance * -1 : distance;
-        Point virtualEndPoint = Utils.calculatePoint(gi.getStartLocation(), distance + 1, gi.getDirection());
-
-        double angle = Utils.getAngle(robot.getLocation(), virtualEndPoint);
-        double yVel = Math.cos(Math.toRadians(angle - robot.getAngle())) * this.speed;
-        double xVel = Math.sin(Math.toRadians(angle - robot.getAngle())) * this.speed * -1;
-        robot.setVelocity(new Point(xVel, yVel));
-        robot.setRotationRate(gi.getRotation());
-    }
-
-    /**
-     * Calculates the robots new position and heading based on the current input and time difference.
-     *
-     * @param input     Current robot input
-     * @param timeDelta time between frames
-     */
-    private void calculatePointMovement(RobotInput input, double timeDelta) {
-        PointInput pi = (PointInput) input;
-        if (pathIndex == pathVertices.size() - 1 && Utils.isAtGoal(robot.getLocation(), pathVertices.get(pathIndex))) {
-            atGoal = true;
-        } else if (Utils.isAtGoal(robot.getLocation(), pathVertices.get(pathIndex))) {
-            // if we are at a vertex that is not the goal, set the local goal to the next index
-            pathIndex++;
-        }
-        double distance = Utils.distanceBetweenPoints(robot.getLocation(), pathVertices.get(pathIndex));
-        distance = distance < 0 ? distance * -1 : distance;
-        if (distance <= SLOW_DOWN_DISTANCE) {
-            // if we are within 1 foot of the target slow down
-            double angle = Utils.getAngle(robot.getLocation(), pathVertices.get(pathIndex));
-            double yVel = Math.cos(Math.toRadians(angle - robot.getAngle())) * this.speed * 0.5;
-            double xVel = Math.sin(Math.toRadians(angle - robot.getAngle())) * this.speed * -1 * 0.5;
-            robot.setVelocity(new Point(xVel, yVel));
-        } else {
-            double angle = Utils.getAngle(robot.getLocation(), pathVertices.get(pathIndex));
-            double yVel = Math.cos(Math.toRadians(angle - robot.getAngle())) * this.speed;
-            double xVel = Math.sin(Math.toRadians(angle - robot.getAngle())) * this.speed * -1;
-            robot.setVelocity(new Point(xVel, yVel));
-        }
-    }
-
-    /**
-     * Calculates the robots next move based on the current vertex it is aiming for.
-     *
-     * @param input     Current robot input
-     * @param deltaTime time between frames
-     */
-    private void calculateRectangleMovement(RobotInput input, double deltaTime) {
-        RectanglePathInput rpi = (RectanglePathInput) input;
-        if (pathIndex == pathVertices.size() - 1 && Utils.isAtGoal(robot.getLocation(), pathVertices.get(pathIndex))) {
-            atGoal = true;
-        } else if (Utils.isAtGoal(robot.getLocation(), pathVertices.get(pathIndex))) {
-            // if we are at a vertex that is not the goal, set the local goal to the next index
-            pathIndex++;
-        }
-        double distance = Utils.distanceBetweenPoints(robot.getLocation(), pathVertices.get(pathIndex));
-        distance = distance < 0 ? distance * -1 : distance;
-        if (distance <= SLOW_DOWN_DISTANCE) {
-            // if we are within 1 foot of the target slow down
-            double angle = Utils.getAngle(robot.getLocation(), pathVertices.get(pathIndex));
-            double yVel = Math.cos(Math.toRadians(angle - robot.getAngle())) * this.speed * 0.5;
-            double xVel = Math.sin(Math.toRadians(angle - robot.getAngle())) * this.speed * -1 * 0.5;
-            robot.setVelocity(new Point(xVel, yVel));
-            robot.setRotationRate(rpi.getRotationRate());
-        } else {
-            double angle = Utils.getAngle(robot.getLocation(), pathVertices.get(pathIndex));
-            double yVel = Math.cos(Math.toRadians(angle - robot.getAngle())) * this.speed;
-            double xVel = Math.sin(Math.toRadians(angle - robot.getAngle())) * this.speed * -1;
-            robot.setVelocity(new Point(xVel, yVel));
-            robot.setRotationRate(rpi.getRotationRate());
-        }
+        integrator.step(robot, robot.getVelocityX(), robot.getVelocityY(), robot.getRotationRate(), timeDelta);
     }
 
     /**
-     * Calculates the robots next moved based on the location around the circle.
+     * Event driven alternative to calculateNewPosition.  The velocity and rotation rate only change when
+     * the course is recalculated, so the robot moves along an exact arc until the next event: the next
+     * course recalculation, or the controller reaching a vertex or the goal.  The robot jumps straight
+     * there in one closed form step and the course is recalculated at the event.
+     * <p/>
+     * Don't mix with calculateNewPosition on the same simulator, the two recalculate the course at
+     * slightly different times.
      *
-     * @param input     current robot input
-     * @param timeDelta time between frames
+     * @param maxTime longest time to move in seconds
+     * @return time moved in seconds, 0 if a vertex was reached without moving
      */
-    private void calculateCircleMovement(RobotInput input, double timeDelta) {
-        CirclePathInput cpi = (CirclePathInput) input;
-        if (pathIndex == pathVertices.size() - 1 && Utils.isAtGoal(robot.getLocation(), pathVertices.get(pathIndex))) {
-            atGoal = true;
-        } else if (Utils.isAtGoal(robot.getLocation(), pathVertices.get(pathIndex))) {
-            pathIndex++;
-        }
-        double distance = Utils.distanceBetweenPoints(robot.getLocation(), pathVertices.get(pathIndex));
-        distance = distance < 0 ? distance * -1 : distance;
-        if (distance <= SLOW_DOWN_DISTANCE) {
-            // slow down
-            double angle = Utils.getAngle(robot.getLocation(), pathVertices.get(pathIndex));
-            double yVel = Math.cos(Math.toRadians(angle - robot.getAngle())) * this.speed * 0.5;
-            double xVel = Math.sin(Math.toRadians(angle - robot.getAngle())) * this.speed * -1 * 0.5;
-            robot.setVelocity(new Point(xVel, yVel));
-            robot.setRotationRate(cpi.getRotationRate());
-        } else {
-            double angle = Utils.getAngle(robot.getLocation(), pathVertices.get(pathIndex));
-            double yVel = Math.cos(Math.toRadians(angle - robot.getAngle())) * this.speed;
-            double xVel = Math.sin(Math.toRadians(angle - robot.getAngle())) * this.speed * -1;
-            robot.setVelocity(new Point(xVel, yVel));
-            robot.setRotationRate(cpi.getRotationRate());
-        }
-    }
-
-    private void calculateFigureEightMovement(RobotInput input, double timeDelta) {
-        FigureEightPathInput fepi = (FigureEightPathInput) input;
-        if (pathIndex == pathVertices.size() - 1 && Utils.isAtGoal(robot.getLocation(), pathVertices.get(pathIndex))) {
-            atGoal = true;
-        } else if (Utils.isAtGoal(robot.getLocation(), pathVertices.get(pathIndex))) {
-            pathIndex++;
-        }
-        double distance = Utils.distanceBetweenPoints(robot.getLocation(), pathVertices.get(pathIndex));
-        distance = distance < 0 ? distance * -1 : distance;
-        if (distance <= SLOW_DOWN_DISTANCE) {
-            double angle = Utils.getAngle(robot.getLocation(), pathVertices.get(pathIndex));
-            double yVel = Math.cos(Math.toRadians(angle - robot.getAngle())) * this.speed * 0.5;
-            double xVel = Math.sin(Math.toRadians(angle - robot.getAngle())) * this.speed * -1 * 0.5;
-            robot.setVelocity(new Point(xVel, yVel));
-            robot.setRotationRate(fepi.getRotationRate());
+    public double advance(double maxTime) {
+        double untilRecalculation = RECALCULATE_COURSE - lastRecalculation;
+        double interval = Math.min(untilRecalculation, maxTime);
+        double time = controller.timeToEvent(robot, interval);
+        exactIntegrator.step(robot, robot.getVelocityX(), robot.getVelocityY(), robot.getRotationRate(), time);
+        if (time < interval || interval == untilRecalculation) {
+            lastRecalculation += time;
+            controller.update(robot, lastRecalculation);
+            lastRecalculation = 0.0;
         } else {
-            double angle = Utils.getAngle(robot.getLocation(), pathVertices.get(pathIndex));
-            double yVel = Math.cos(Math.toRadians(angle - robot.getAngle())) * this.speed;
-            double xVel = Math.sin(Math.toRadians(angle - robot.getAngle())) * this.speed * -1;
-            robot.setVelocity(new Point(xVel, yVel));
-            robot.setRotationRate(fepi.getRotationRate());
+            lastRecalculation += time;
         }
-    }
-
-    /**
-     * Updates the robots current location and heading to a new one based on calculated velocity and rotation rate.
-     *
-     * @param xVel         GRF X-axis velocity in feet/sec
-     * @param yVel         GRF Y-axis velocity in feet/sec
-     * @param rotationRate Rotation rate of robot in seconds
-     * @param timeDelta    Time difference between this and last frame in seconds
-     * @param robot        Robot to have heading and location updated
-     */
-    private void updateRobot(double xVel, double yVel, double rotationRate, double timeDelta, Robot robot) {
-        double angle = robot.getAngle() + timeDelta * rotationRate;
-        robot.setAngle(Utils.roundDouble(angle));
-        // update velocities based on vehicle angle to the GRF
-        Point vel = VelocityEquations.convertYawToGlobalFrame(new Position(new Point(xVel, yVel), robot.getAngle()));
-        // calculate the new position data
-        double newX = vel.getX() * timeDelta + robot.getLocation().getX();
-        double newY = vel.getY() * timeDelta + robot.getLocation().getY();
-        robot.setLocation(new Point(Utils.roundDouble(newX), Utils.roundDouble(newY)));
+        return time;
     }
 
     /**
@@ -370,11 +299,15 @@ public class Simulator {
      * @return distance to goal
      */
     private double calculatePointDistance(PointInput pi) {
-        if (pi.getWayPoints().isEmpty()) {
+        if (pi.getWayPoints() == null || pi.getWayPoints().isEmpty()) {
             double distance = Utils.distanceBetweenPoints(robot.getLocation(), pi.getEndPoint());
             this.pathVertices.add(pi.getEndPoint());
             // make sure the distance is positive
             return distance >= 0 ? distance : -1 * distance;
+        } else if (routeOptimizer != null) {
+            this.pathVertices.addAll(routeOptimizer.optimize(robot.getLocation(), pi.getWayPoints(), pi.getEndPoint()));
+            this.pathVertices.add(pi.getEndPoint());
+            return calculateTotalPathLength();
         } else {
             // add in the way points
             this.pathVertices.addAll(pi.getWayPoints());
@@ -393,7 +326,7 @@ public class Simulator {
      * @return distance
      */
     private double calculateRectangleDistance(RectanglePathInput rpi) {
-        if (rpi.getWayPoints().isEmpty()) {
+        if (rpi.getWayPoints() == null || rpi.getWayPoints().isEmpty()) {
             double topSides = rpi.getTopLength();
             double sides = rpi.getSideLength();
             generateRectanglePath(rpi, robot.getLocation());
@@ -422,7 +355,7 @@ public class Simulator {
      * @return distance
      */
     private double calculateCircleDistance(CirclePathInput cpi) {
-        if (cpi.getWayPoints().isEmpty()) {
+        if (cpi.getWayPoints() == null || cpi.getWayPoints().isEmpty()) {
             generateCirclePath(cpi, robot.getLocation());
             return 2 * Math.PI * cpi.getRadius();
         } else {
@@ -444,7 +377,7 @@ public class Simulator {
      * @return distance
      */
     private double calculateFigureEightPath(FigureEightPathInput fepi) {
-        if (fepi.getWayPoints().isEmpty()) {
+        if (fepi.getWayPoints() == null || fepi.getWayPoints().isEmpty()) {
             generateFigureEightPath(fepi, robot.getLocation());
             return (2 * Math.PI * fepi.getRadiusOne() + 2 * Math.PI * fepi.getRadiusTwo());
         } else {
@@ -543,24 +476,64 @@ public class Simulator {
     }
 
     /**
-     * Organize the vertices based on the distance from one another.
+     * Organize the vertices based on the distance from one another.  Each way point is inserted after the
+     * closest vertex so far (including way points already inserted).  The closest vertex is found with a
+     * spatial grid and the vertices are kept in a linked sequence so inserts don't shift the list.
      *
      * @param wayPoints way points to add to the path
      */
     private void organizeVertices(ArrayList<Point> wayPoints) {
+        if (pathVertices.isEmpty()) {
+            pathVertices.addAll(wayPoints);
+            return;
+        }
+        int total = pathVertices.size() + wayPoints.size();
+        // size the grid to cover every vertex and way point
+        double minX = Double.POSITIVE_INFINITY;
+        double minY = Double.POSITIVE_INFINITY;
+        double maxX = Double.NEGATIVE_INFINITY;
+        double maxY = Double.NEGATIVE_INFINITY;
+        for (int i = 0; i < total; i++) {
+            Point p = i < pathVertices.size() ? pathVertices.get(i) : wayPoints.get(i - pathVertices.size());
+            minX = Math.min(minX, p.getX());
+            minY = Math.min(minY, p.getY());
+            maxX = Math.max(maxX, p.getX());
+            maxY = Math.max(maxY, p.getY());
+        }
+        PointGrid grid = new PointGrid(minX, minY, maxX, maxY, total);
+        // grid id -> vertex, next links the ids in path order (-1 at the end)
+        Point[] vertices = new Point[total];
+        int[] next = new int[total];
+        // increasing along the path so equally close vertices go to the earliest one, like a scan of the list
+        long[] order = new long[total];
+        for (int i = 0; i < pathVertices.size(); i++) {
+            int id = grid.add(pathVertices.get(i).getX(), pathVertices.get(i).getY());
+            vertices[id] = pathVertices.get(i);
+            next[id] = i + 1 < pathVertices.size() ? id + 1 : -1;
+            order[id] = (long) i << ORDER_GAP;
+        }
         for (int i = 0; i < wayPoints.size(); i++) {
-            double distance = Utils.distanceBetweenPoints(wayPoints.get(i), pathVertices.get(0));
-            distance = distance < 0 ? distance * -1 : distance;
-            int index = 0;
-            for (int j = 1; j < pathVertices.size(); j++) {
-                double temp = Utils.distanceBetweenPoints(wayPoints.get(i), pathVertices.get(j));
-                temp = temp < 0 ? temp * -1 : temp;
-                if (temp < distance) {
-                    index = j;
-                    distance = temp;
+            Point wayPoint = wayPoints.get(i);
+            int closest = grid.nearest(wayPoint.getX(), wayPoint.getY(), order);
+            int id = grid.add(wayPoint.getX(), wayPoint.getY());
+            vertices[id] = wayPoint;
+            next[id] = next[closest];
+            next[closest] = id;
+            long after = next[id] == -1 ? order[closest] + (2L << ORDER_GAP) : order[next[id]];
+            if (after - order[closest] < 2) {
+                // no room left between the neighbours, spread the whole path out again
+                int position = 0;
+                for (int j = 0; j != -1; j = next[j]) {
+                    order[j] = (long) position++ << ORDER_GAP;
                 }
+            } else {
+                order[id] = order[closest] + (after - order[closest]) / 2;
             }
-            pathVertices.add(index + 1, wayPoints.get(i));
+        }
+        // walk the sequence back into the list, the first vertex never moves
+        pathVertices.clear();
+        for (int id = 0; id != -1; id = next[id]) {
+            pathVertices.add(vertices[id]);
         }
     }
 
@@ -570,14 +543,19 @@ public class Simulator {
      * @return distance
      */
     private double calculateTotalPathLength() {
-        double distance = 0.0;
-        double temp;
-        Point previousPoint = robot.getLocation();
+        compileTrajectory();
+        return trajectory.getTotalLength();
+    }
+
+    /**
+     * Compiles the planned vertices, starting from the robot location, into the trajectory.
+     */
+    private void compileTrajectory() {
+        Trajectory.Builder builder = new Trajectory.Builder(pathVertices.size() + 1);
+        builder.add(robot.getX(), robot.getY());
         for (int i = 0; i < pathVertices.size(); i++) {
-            temp = Utils.distanceBetweenPoints(previousPoint, pathVertices.get(i));
-            distance += temp >= 0 ? temp : -1 * temp;
-            previousPoint = pathVertices.get(i);
+            builder.add(pathVertices.get(i));
         }
-        return distance;
+        trajectory = builder.build();
     }
 }
@@ -0,0 +1,101 @@
+package simulator;
+
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * Set of values a single parameter takes during a parameter sweep, either evenly spaced or
+ * drawn from a distribution.  Random draws are seeded so a sweep can be repeated exactly.
+ * <p/>
+ * Created by CyberPuck on 2026-10-17.
+ */
+public class SweepRange {
+    private double[] values;
+
+    private SweepRange(double[] values) {
+        if (values.length == 0) {
+            throw new IllegalArgumentException("A sweep range needs at least one value");
+        }
+        this.values = values;
+    }
+
+    /**
+     * Single value, useful to pin a parameter while sweeping the others.
+     *
+     * @param value value to use
+     * @return range with one value
+     */
+    public static SweepRange fixed(double value) {
+        return new SweepRange(new double[]{value});
+    }
+
+    /**
+     * Evenly spaced values between min and max, both ends included.
+     *
+     * @param min   first value
+     * @param max   last value
+     * @param count number of values
+     * @return range of count values
+     */
+    public static SweepRange linear(double min, double max, int count) {
+        if (count == 1) {
+            return fixed(min);
+        }
+        double[] values = new double[count];
+        for (int i = 0; i < count; i++) {
+            values[i] = min + (max - min) * i / (count - 1);
+        }
+        return new SweepRange(values);
+    }
+
+    /**
+     * Values drawn from a uniform distribution between min and max.
+     *
+     * @param min   smallest value
+     * @param max   largest value
+     * @param count number of values to draw
+     * @param seed  random seed
+     * @return range of count values
+     */
+    public static SweepRange uniform(double min, double max, int count, long seed) {
+        Random random = new Random(seed);
+        double[] values = new double[count];
+        for (int i = 0; i < count; i++) {
+            values[i] = min + (max - min) * random.nextDouble();
+        }
+        return new SweepRange(values);
+    }
+
+    /**
+     * Values drawn from a normal distribution.
+     *
+     * @param mean              center of the distribution
+     * @param standardDeviation spread of the distribution
+     * @param count             number of values to draw
+     * @param seed              random seed
+     * @return range of count values
+     */
+    public static SweepRange normal(double mean, double standardDeviation, int count, long seed) {
+        Random random = new Random(seed);
+        double[] values = new double[count];
+        for (int i = 0; i < count; i++) {
+            values[i] = mean + standardDeviation * random.nextGaussian();
+        }
+        return new SweepRange(values);
+    }
+
+    public int size() {
+        return values.length;
+    }
+
+    public double get(int index) {
+        return values[index];
+    }
+
+    @Override
+    public String toString() {
+        return "SweepRange{" +
+                "values=" + Arrays.toString(values) +
+                '}';
+    }
+}
@@ -0,0 +1,149 @@
+package simulator;
+
+/**
+ * Aggregate results of a parameter sweep.  Each worker fills its own copy and the copies are
+ * merged at the end, so no locking is needed while the sweep runs.
+ * <p/>
+ * Created by CyberPuck on 2026-10-17.
+ */
+public class SweepStatistics {
+    // number of scenarios added
+    private long scenarios;
+    // scenarios that reached the goal
+    private long completed;
+    // scenarios rejected because the path could not be finished in the requested time
+    private long notEnoughTime;
+    // scenarios that ran out of time budget before reaching the goal
+    private long timedOut;
+    // completion time of the scenarios that reached the goal, in seconds
+    private double minCompletionTime = Double.POSITIVE_INFINITY;
+    private double maxCompletionTime = 0.0;
+    private double totalCompletionTime = 0.0;
+    // distance between the final location and the goal, in feet
+    private double maxPoseError = 0.0;
+    private double totalPoseError = 0.0;
+    private long poseErrorCount;
+    // largest wheel rate seen per scenario
+    private double maxWheelRate = 0.0;
+    private double totalMaxWheelRate = 0.0;
+    // total simulation steps taken across all scenarios
+    private long steps;
+
+    /**
+     * Adds the outcome of a single scenario.
+     *
+     * @param result    result of the run
+     * @param poseError distance from the final location to the goal, NaN if the input has no goal
+     */
+    public void add(BatchResult result, double poseError) {
+        scenarios++;
+        if (!result.isEnoughTime()) {
+            notEnoughTime++;
+            return;
+        }
+        steps += result.getSteps();
+        if (result.isAtGoal()) {
+            completed++;
+            minCompletionTime = Math.min(minCompletionTime, result.getSimulatedTime());
+            maxCompletionTime = Math.max(maxCompletionTime, result.getSimulatedTime());
+            totalCompletionTime += result.getSimulatedTime();
+        } else {
+            timedOut++;
+        }
+        if (!Double.isNaN(poseError)) {
+            poseErrorCount++;
+            maxPoseError = Math.max(maxPoseError, poseError);
+            totalPoseError += poseError;
+        }
+        maxWheelRate = Math.max(maxWheelRate, result.getMaxWheelRate());
+        totalMaxWheelRate += result.getMaxWheelRate();
+    }
+
+    /**
+     * Folds another set of statistics into this one.
+     *
+     * @param other statistics to merge
+     */
+    public void merge(SweepStatistics other) {
+        scenarios += other.scenarios;
+        completed += other.completed;
+        notEnoughTime += other.notEnoughTime;
+        timedOut += other.timedOut;
+        minCompletionTime = Math.min(minCompletionTime, other.minCompletionTime);
+        maxCompletionTime = Math.max(maxCompletionTime, other.maxCompletionTime);
+        totalCompletionTime += other.totalCompletionTime;
+        maxPoseError = Math.max(maxPoseError, other.maxPoseError);
+        totalPoseError += other.totalPoseError;
+        poseErrorCount += other.poseErrorCount;
+        maxWheelRate = Math.max(maxWheelRate, other.maxWheelRate);
+        totalMaxWheelRate += other.totalMaxWheelRate;
+        steps += other.steps;
+    }
+
+    public long getScenarios() {
+        return scenarios;
+    }
+
+    public long getCompleted() {
+        return completed;
+    }
+
+    public long getNotEnoughTime() {
+        return notEnoughTime;
+    }
+
+    public long getTimedOut() {
+        return timedOut;
+    }
+
+    public double getMinCompletionTime() {
+        return completed == 0 ? 0.0 : minCompletionTime;
+    }
+
+    public double getMaxCompletionTime() {
+        return maxCompletionTime;
+    }
+
+    public double getMeanCompletionTime() {
+        return completed == 0 ? 0.0 : totalCompletionTime / completed;
+    }
+
+    public double getMaxPoseError() {
+        return maxPoseError;
+    }
+
+    public double getMeanPoseError() {
+        return poseErrorCount == 0 ? 0.0 : totalPoseError / poseErrorCount;
+    }
+
+    public double getMaxWheelRate() {
+        return maxWheelRate;
+    }
+
+    public double getMeanMaxWheelRate() {
+        long simulated = scenarios - notEnoughTime;
+        return simulated == 0 ? 0.0 : totalMaxWheelRate / simulated;
+    }
+
+    public long getSteps() {
+        return steps;
+    }
+
+    @Override
+    public String toString() {
+        return "SweepStatistics{" +
+                "scenarios=" + scenarios +
+                ", completed=" + completed +
+                ", notEnoughTime=" + notEnoughTime +
+                ", timedOut=" + timedOut +
+                ", minCompletionTime=" + getMinCompletionTime() +
+                ", meanCompletionTime=" + getMeanCompletionTime() +
+                ", maxCompletionTime=" + maxCompletionTime +
+                ", meanPoseError=" + getMeanPoseError() +
+                ", maxPoseError=" + maxPoseError +
+                ", meanMaxWheelRate=" + getMeanMaxWheelRate() +
+                ", maxWheelRate=" + maxWheelRate +
+                ", steps=" + steps +
+                '}';
+    }
+}
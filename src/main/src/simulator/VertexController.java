@@ -0,0 +1,130 @@
+package simulator;
+
+import robot.Robot;
+import utilities.SinCos;
+import utilities.Trajectory;
+import utilities.Utils;
+
+/**
+ * Drives the robot from vertex to vertex along the planned path at a constant speed, slowing down
+ * when close to the next vertex.  Used by the point and all of the path inputs.
+ * <p/>
+ * Created by CyberPuck on 2026-10-17.
+ */
+public class VertexController implements MotionController {
+    // distance to start slowing down
+    private static double SLOW_DOWN_DISTANCE = 1.0;
+    // half width of the box the event search aims for, a little inside the 0.25 foot box Utils.isAtGoal
+    // uses so the robot is still inside it after its location is trimmed
+    private static double CAPTURE_DISTANCE = 0.248;
+    // distance travelled between checks when searching for a vertex, in feet
+    private static double SEARCH_DISTANCE = 0.02;
+    // halvings used to pin down when the robot enters the box
+    private static int SEARCH_ITERATIONS = 30;
+
+    // planned path, vertex 0 is the starting location and the last one is the goal
+    private Trajectory trajectory;
+    // index of the vertex being driven to
+    private int index = 1;
+    // max/desired speed of the robot
+    private double speed;
+    // rotation rate to hold while moving
+    private double rotationRate;
+    private boolean atGoal;
+    // sin and cos of the heading to the target, reused while the heading holds
+    private SinCos heading = new SinCos();
+    // scratch pose for the event search
+    private double[] pose = new double[3];
+
+    public VertexController(Trajectory trajectory, double speed, double rotationRate) {
+        this.trajectory = trajectory;
+        this.speed = speed;
+        this.rotationRate = rotationRate;
+    }
+
+    @Override
+    public void update(Robot robot, double elapsed) {
+        double targetX = trajectory.getX(index);
+        double targetY = trajectory.getY(index);
+        if (index == trajectory.size() - 1 && Utils.isAtGoal(robot.getX(), robot.getY(), targetX, targetY)) {
+            atGoal = true;
+        } else if (Utils.isAtGoal(robot.getX(), robot.getY(), targetX, targetY)) {
+            // if we are at a vertex that is not the goal, set the local goal to the next index
+            index++;
+            targetX = trajectory.getX(index);
+            targetY = trajectory.getY(index);
+        }
+        double distance = Utils.distanceBetweenPoints(robot.getX(), robot.getY(), targetX, targetY);
+        // if we are within 1 foot of the target slow down
+        double scale = distance <= SLOW_DOWN_DISTANCE ? 0.5 : 1.0;
+        double angle = Utils.getAngle(robot.getX(), robot.getY(), targetX, targetY);
+        heading.set(angle - robot.getAngle());
+        double yVel = heading.getCos() * speed * scale;
+        double xVel = heading.getSin() * speed * -1 * scale;
+        robot.setVelocity(xVel, yVel);
+        robot.setRotationRate(rotationRate);
+    }
+
+    @Override
+    public boolean isAtGoal() {
+        return atGoal;
+    }
+
+    /**
+     * Finds when the robot enters the box around the vertex being driven to.  The arc is checked every
+     * SEARCH_DISTANCE feet, so a path that only clips a corner of the box by less than that is missed.
+     */
+    @Override
+    public double timeToEvent(Robot robot, double horizon) {
+        double speed = Math.sqrt(robot.getVelocityX() * robot.getVelocityX() + robot.getVelocityY() * robot.getVelocityY());
+        if (atGoal || speed == 0) {
+            return horizon;
+        }
+        double targetX = trajectory.getX(index);
+        double targetY = trajectory.getY(index);
+        // the corners of the box are the closest it can be, skip the search if they are out of reach
+        double gap = Utils.distanceBetweenPoints(robot.getX(), robot.getY(), targetX, targetY) - CAPTURE_DISTANCE * Math.sqrt(2);
+        if (gap > speed * horizon) {
+            return horizon;
+        }
+        double step = Math.min(horizon, SEARCH_DISTANCE / speed);
+        double outside = 0;
+        for (double time = 0; ; time = Math.min(horizon, time + step)) {
+            if (isCaptured(robot, time, targetX, targetY)) {
+                if (time == 0) {
+                    return 0;
+                }
+                // halve the gap between the last check outside and this one
+                double inside = time;
+                for (int i = 0; i < SEARCH_ITERATIONS; i++) {
+                    double middle = (outside + inside) / 2;
+                    if (isCaptured(robot, middle, targetX, targetY)) {
+                        inside = middle;
+                    } else {
+                        outside = middle;
+                    }
+                }
+                return inside;
+            }
+            if (time >= horizon) {
+                return horizon;
+            }
+            outside = time;
+        }
+    }
+
+    private boolean isCaptured(Robot robot, double time, double targetX, double targetY) {
+        ExactIntegrator.move(robot.getX(), robot.getY(), robot.getAngle(), robot.getVelocityX(), robot.getVelocityY(),
+                robot.getRotationRate(), time, pose);
+        return Math.abs(pose[0] - targetX) < CAPTURE_DISTANCE && Math.abs(pose[1] - targetY) < CAPTURE_DISTANCE;
+    }
+
+    /**
+     * Index of the trajectory vertex being driven to.
+     *
+     * @return vertex index, 1 is the first vertex after the start
+     */
+    public int getIndex() {
+        return index;
+    }
+}
@@ -0,0 +1,39 @@
+package simulator;
+
+import robot.Kinematics;
+import robot.Robot;
+
+/**
+ * Spins the wheels at fixed rates, the velocity and rotation rate come straight from the kinematics.
+ * Never reaches a goal.
+ * <p/>
+ * Created by CyberPuck on 2026-10-17.
+ */
+public class WheelController implements MotionController {
+    // velocity and rotation rate never change so they are worked out up front
+    private double velocityX;
+    private double velocityY;
+    private double rotationRate;
+
+    public WheelController(double wheelRadius, double width, double length, double w1, double w2, double w3, double w4) {
+        rotationRate = Kinematics.calculateVehicleRotation(wheelRadius, width, length, w1, w2, w3, w4);
+        velocityX = Kinematics.calculateVelocityX(wheelRadius, w1, w2, w3, w4);
+        velocityY = Kinematics.calculateVelocityY(wheelRadius, w1, w2, w3, w4);
+    }
+
+    @Override
+    public void update(Robot robot, double elapsed) {
+        robot.setVelocity(velocityX, velocityY);
+        robot.setRotationRate(rotationRate);
+    }
+
+    @Override
+    public boolean isAtGoal() {
+        return false;
+    }
+
+    @Override
+    public double timeToEvent(Robot robot, double horizon) {
+        return horizon;
+    }
+}
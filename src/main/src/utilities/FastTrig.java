@@ -0,0 +1,141 @@
+package utilities;
+
+/**
+ * Trigonometry in degrees for the geometry hot paths.  By default every method gives exactly the same
+ * result as the Math calls it replaces (Math.sin(Math.toRadians(angle)) and so on), so simulations
+ * don't change.
+ * <p/>
+ * With setApproximate(true) the functions use lookup tables with linear interpolation instead:
+ * <ul>
+ * <li>sin and cos: 4096 steps per turn, max absolute error 3e-7</li>
+ * <li>atan: 4096 steps over [0, 1] plus range reduction, max absolute error 3e-7 degrees</li>
+ * </ul>
+ * Fine for drawing and large sweeps, but results are no longer bit for bit the same as the exact mode.
+ * The setting is global and off by default.
+ * <p/>
+ * Created by CyberPuck on 2026-10-17.
+ */
+public class FastTrig {
+    // table steps in a full turn, power of two so the index can be masked
+    private static int SIN_STEPS = 4096;
+    private static int SIN_MASK = SIN_STEPS - 1;
+    private static double STEPS_PER_DEGREE = SIN_STEPS / 360.0;
+    // table steps between atan(0) and atan(1)
+    private static int ATAN_STEPS = 4096;
+
+    // sin over a full turn, one extra entry so interpolation never wraps
+    private static double[] SIN_TABLE = new double[SIN_STEPS + 1];
+    // atan in degrees over [0, 1]
+    private static double[] ATAN_TABLE = new double[ATAN_STEPS + 1];
+
+    private static volatile boolean approximate = false;
+
+    static {
+        for (int i = 0; i <= SIN_STEPS; i++) {
+            SIN_TABLE[i] = Math.sin(2 * Math.PI * i / SIN_STEPS);
+        }
+        for (int i = 0; i <= ATAN_STEPS; i++) {
+            ATAN_TABLE[i] = Math.toDegrees(Math.atan((double) i / ATAN_STEPS));
+        }
+    }
+
+    public static boolean isApproximate() {
+        return approximate;
+    }
+
+    /**
+     * Switches every caller between the exact functions and the table approximations.
+     *
+     * @param approximate true to use the tables
+     */
+    public static void setApproximate(boolean approximate) {
+        FastTrig.approximate = approximate;
+    }
+
+    /**
+     * Sine of an angle.
+     *
+     * @param angle angle in degrees
+     * @return sine
+     */
+    public static double sin(double angle) {
+        if (!approximate) {
+            return Math.sin(Math.toRadians(angle));
+        }
+        return tableSin(angle * STEPS_PER_DEGREE);
+    }
+
+    /**
+     * Cosine of an angle.
+     *
+     * @param angle angle in degrees
+     * @return cosine
+     */
+    public static double cos(double angle) {
+        if (!approximate) {
+            return Math.cos(Math.toRadians(angle));
+        }
+        // cos is sin a quarter turn later
+        return tableSin(angle * STEPS_PER_DEGREE + SIN_STEPS / 4);
+    }
+
+    /**
+     * Sine and cosine of an angle in one call, the angle is only converted once.
+     *
+     * @param angle  angle in degrees
+     * @param result holder for the values
+     */
+    public static void sinCos(double angle, SinCos result) {
+        if (!approximate) {
+            double radians = Math.toRadians(angle);
+            result.setValues(Math.sin(radians), Math.cos(radians));
+            return;
+        }
+        double steps = angle * STEPS_PER_DEGREE;
+        result.setValues(tableSin(steps), tableSin(steps + SIN_STEPS / 4));
+    }
+
+    /**
+     * Arc tangent in degrees, same as Math.toDegrees(Math.atan(value)).
+     *
+     * @param value tangent
+     * @return angle between -90 and 90 degrees
+     */
+    public static double atan(double value) {
+        if (!approximate) {
+            return Math.toDegrees(Math.atan(value));
+        }
+        if (Double.isNaN(value)) {
+            return value;
+        }
+        double magnitude = Math.abs(value);
+        double angle;
+        if (magnitude <= 1) {
+            angle = tableAtan(magnitude);
+        } else {
+            // atan(x) = 90 - atan(1 / x) for positive x
+            angle = 90 - tableAtan(1 / magnitude);
+        }
+        return value < 0 ? -angle : angle;
+    }
+
+    /**
+     * Interpolates the sin table, steps is the angle in table steps.
+     */
+    private static double tableSin(double steps) {
+        double floor = Math.floor(steps);
+        int index = (int) ((long) floor & SIN_MASK);
+        double fraction = steps - floor;
+        return SIN_TABLE[index] + (SIN_TABLE[index + 1] - SIN_TABLE[index]) * fraction;
+    }
+
+    /**
+     * Interpolates the atan table, value has to be in [0, 1].
+     */
+    private static double tableAtan(double value) {
+        double steps = value * ATAN_STEPS;
+        int index = Math.min((int) steps, ATAN_STEPS - 1);
+        double fraction = steps - index;
+        return ATAN_TABLE[index] + (ATAN_TABLE[index + 1] - ATAN_TABLE[index]) * fraction;
+    }
+}
@@ -0,0 +1,71 @@
+package utilities;
+
+/**
+ * Fixed point helpers for holding simulation state to the thousandth (millifeet, millidegrees).
+ * Rounds the same way the old DecimalFormat("#.###") trimming did (half even on the exact value of
+ * the double) but without any String work, so it is cheap enough to use every frame and gives the
+ * same answer on every run and thread.
+ * <p/>
+ * Created by CyberPuck on 2026-10-17.
+ */
+public class FixedPoint {
+    // number of fixed point units in one whole unit, three decimal places
+    public static final long SCALE = 1000;
+    // Veltkamp split constant (2^27 + 1), used to get the exact error of a multiplication
+    private static final double SPLITTER = 134217729.0;
+
+    /**
+     * Converts a value to the nearest thousandth, held as a long.
+     *
+     * @param value Original double value
+     * @return value in thousandths
+     */
+    public static long quantize(double value) {
+        double scaled = value * SCALE;
+        double rounded = Math.rint(scaled);
+        if (Math.abs(scaled - rounded) == 0.5) {
+            // the multiplication landed on a tie, check which way the exact product leans
+            double error = productError(value, scaled);
+            if (error > 0) {
+                rounded = Math.ceil(scaled);
+            } else if (error < 0) {
+                rounded = Math.floor(scaled);
+            }
+        }
+        return (long) rounded;
+    }
+
+    /**
+     * Converts thousandths back to a double.
+     *
+     * @param value value in thousandths
+     * @return closest double to the value
+     */
+    public static double toDouble(long value) {
+        return value / (double) SCALE;
+    }
+
+    /**
+     * Trims a double to the thousandths.
+     *
+     * @param value Original double value
+     * @return double trimmed to the thousandths
+     */
+    public static double round(double value) {
+        return toDouble(quantize(value));
+    }
+
+    /**
+     * Calculates the rounding error of value * SCALE (Dekker's two product, SCALE splits exactly).
+     *
+     * @param value  value that was scaled
+     * @param scaled rounded product of value and SCALE
+     * @return exact product minus the rounded product
+     */
+    private static double productError(double value, double scaled) {
+        double c = SPLITTER * value;
+        double high = c - (c - value);
+        double low = value - high;
+        return (high * SCALE - scaled) + low * SCALE;
+    }
+}
@@ -0,0 +1,239 @@
+package utilities;
+
+import java.util.Arrays;
+
+/**
+ * Growing polyline that is simplified as points arrive.  Vertices are stored in fixed size chunks of
+ * primitive arrays, so growing never copies what is already stored and no Point objects are kept.
+ * <p/>
+ * Simplification keeps a cone of headings from the last vertex: every point that arrives narrows it to
+ * the headings that pass within tolerance / sqrt(2) of that point.  While new points stay inside the cone,
+ * and don't fall back more than the same margin from the furthest one, the points in between are dropped.
+ * When one doesn't the previous point becomes a vertex.  A dropped point is then at most the margin to
+ * the side of the line that replaced it and the margin past its end, so always within the tolerance.  It
+ * costs O(1) per point and straight or gently curving runs collapse to a handful of vertices.
+ * <p/>
+ * The newest point is always the last vertex, so the path reaches where the robot is.
+ * <p/>
+ * Created by CyberPuck on 2026-10-17.
+ */
+public class PathHistory {
+    // vertices per chunk, a power of two so the chunk and offset are a shift and a mask
+    private static int CHUNK_BITS = 12;
+    private static int CHUNK_SIZE = 1 << CHUNK_BITS;
+    private static int CHUNK_MASK = CHUNK_SIZE - 1;
+    // part of the tolerance allowed both across and along the line, together they reach the tolerance
+    private static double MARGIN_SHARE = Math.sqrt(0.5);
+
+    // max distance in the path units a dropped point can be from the simplified path
+    private double tolerance;
+    private double[][] xChunks = new double[4][];
+    private double[][] yChunks = new double[4][];
+    // number of points added before each vertex, used to cut the path back
+    private long[][] addedChunks = new long[4][];
+    // committed vertices, the newest point comes after them
+    private int committed;
+    // the newest point, not a vertex until a later point leaves the cone
+    private boolean hasEnd;
+    private double endX;
+    private double endY;
+    private long endAdded;
+    // points added in total
+    private long added;
+    // heading cone from the last vertex, offsets in radians around the reference heading
+    private boolean coneSet;
+    private double coneReference;
+    private double coneLow;
+    private double coneHigh;
+    // furthest distance from the last vertex inside the cone, a point coming back from it has to be kept
+    private double coneReach;
+
+    /**
+     * Creates an empty path.
+     *
+     * @param tolerance max distance a dropped point can be from the path, 0 keeps every point that moves
+     */
+    public PathHistory(double tolerance) {
+        setTolerance(tolerance);
+    }
+
+    public double getTolerance() {
+        return tolerance;
+    }
+
+    /**
+     * Sets the simplification tolerance for the points added from now on.
+     *
+     * @param tolerance max distance a dropped point can be from the path, in the path units
+     */
+    public void setTolerance(double tolerance) {
+        if (!(tolerance >= 0)) {
+            throw new IllegalArgumentException("Tolerance can't be negative: " + tolerance);
+        }
+        this.tolerance = tolerance;
+    }
+
+    /**
+     * Adds a point to the end of the path.
+     *
+     * @param x x location
+     * @param y y location
+     */
+    public void add(double x, double y) {
+        long index = added++;
+        if (committed == 0) {
+            commit(x, y, index);
+            return;
+        }
+        // without a newest point the cone is empty and anything fits
+        if (!fitsCone(x, y)) {
+            // the newest point can't be dropped any more, the cone starts again from it
+            commit(endX, endY, endAdded);
+            coneSet = false;
+            fitsCone(x, y);
+        }
+        hasEnd = true;
+        endX = x;
+        endY = y;
+        endAdded = index;
+    }
+
+    /**
+     * Checks a point against the heading cone from the last vertex and narrows the cone to it.
+     *
+     * @return false if the point is outside the cone, the cone is left as it was
+     */
+    private boolean fitsCone(double x, double y) {
+        int last = committed - 1;
+        double dx = x - getCommittedX(last);
+        double dy = y - getCommittedY(last);
+        double distance = Math.sqrt(dx * dx + dy * dy);
+        // a dropped point can be off to the side of the line and past its end, each gets part of the tolerance
+        double margin = tolerance * MARGIN_SHARE;
+        if (coneSet && distance < coneReach - margin) {
+            // heading back towards the vertex, the dropped points would stick out past the end
+            return false;
+        }
+        if (distance <= tolerance) {
+            // any line from the vertex passes close enough, unless points further out were already dropped
+            return !coneSet;
+        }
+        double heading = Math.atan2(dy, dx);
+        double spread = Math.asin(margin / distance);
+        if (!coneSet) {
+            coneSet = true;
+            coneReference = heading;
+            coneLow = -spread;
+            coneHigh = spread;
+            coneReach = distance;
+            return true;
+        }
+        double offset = heading - coneReference;
+        // wrap in to -pi - pi
+        offset -= 2 * Math.PI * Math.floor((offset + Math.PI) / (2 * Math.PI));
+        if (offset < coneLow || offset > coneHigh) {
+            return false;
+        }
+        coneLow = Math.max(coneLow, offset - spread);
+        coneHigh = Math.min(coneHigh, offset + spread);
+        coneReach = Math.max(coneReach, distance);
+        return true;
+    }
+
+    private void commit(double x, double y, long index) {
+        int chunk = committed >>> CHUNK_BITS;
+        if (chunk == xChunks.length) {
+            xChunks = Arrays.copyOf(xChunks, chunk * 2);
+            yChunks = Arrays.copyOf(yChunks, chunk * 2);
+            addedChunks = Arrays.copyOf(addedChunks, chunk * 2);
+        }
+        if (xChunks[chunk] == null) {
+            xChunks[chunk] = new double[CHUNK_SIZE];
+            yChunks[chunk] = new double[CHUNK_SIZE];
+            addedChunks[chunk] = new long[CHUNK_SIZE];
+        }
+        int offset = committed & CHUNK_MASK;
+        xChunks[chunk][offset] = x;
+        yChunks[chunk][offset] = y;
+        addedChunks[chunk][offset] = index;
+        committed++;
+    }
+
+    /**
+     * Cuts the path back to how it looked after a number of points were added.  Vertices made from later
+     * points are dropped, so the path ends at the last vertex before the cut.
+     *
+     * @param count number of added points to keep
+     */
+    public void truncate(long count) {
+        if (count >= added) {
+            return;
+        }
+        hasEnd = false;
+        coneSet = false;
+        // vertices are in added order, find the first one to drop
+        int low = 0;
+        int high = committed;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (addedChunks[middle >>> CHUNK_BITS][middle & CHUNK_MASK] < count) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        committed = low;
+        // free the chunks past the end
+        for (int chunk = (committed + CHUNK_MASK) >>> CHUNK_BITS; chunk < xChunks.length; chunk++) {
+            xChunks[chunk] = null;
+            yChunks[chunk] = null;
+            addedChunks[chunk] = null;
+        }
+        added = count;
+    }
+
+    /**
+     * Removes every point.
+     */
+    public void clear() {
+        truncate(0);
+    }
+
+    /**
+     * Number of vertices, including the newest point.
+     *
+     * @return vertex count
+     */
+    public int size() {
+        return hasEnd ? committed + 1 : committed;
+    }
+
+    public boolean isEmpty() {
+        return size() == 0;
+    }
+
+    /**
+     * Number of points added, including the dropped ones.
+     *
+     * @return points added
+     */
+    public long getAddedCount() {
+        return added;
+    }
+
+    public double getX(int index) {
+        return index == committed ? endX : getCommittedX(index);
+    }
+
+    public double getY(int index) {
+        return index == committed ? endY : getCommittedY(index);
+    }
+
+    private double getCommittedX(int index) {
+        return xChunks[index >>> CHUNK_BITS][index & CHUNK_MASK];
+    }
+
+    private double getCommittedY(int index) {
+        return yChunks[index >>> CHUNK_BITS][index & CHUNK_MASK];
+    }
+}
@@ -0,0 +1,246 @@
+package utilities;
+
+import java.util.Arrays;
+
+/**
+ * Uniform grid spatial index over points inside a known bounding box.  Points can be added at any
+ * time and are identified by the order they were added in (0, 1, 2...).  Nearest neighbour queries
+ * search rings of cells outward from the query, so they only touch the cells close to it.
+ * Searches don't change the grid, so several threads can search at once as long as nothing is
+ * being added or removed.
+ * <p/>
+ * Created by CyberPuck on 2026-10-17.
+ */
+public class PointGrid {
+    // average number of points per cell the grid is sized for
+    private static int POINTS_PER_CELL = 2;
+    // upper bound on the number of cells so a huge box can't eat all the memory
+    private static int MAX_CELLS = 1 << 22;
+
+    private double minX;
+    private double minY;
+    private double cellSize;
+    private int columns;
+    private int rows;
+    // first point in each cell, -1 if empty
+    private int[] cellHead;
+    // next point in the same cell, -1 at the end of the cell
+    private int[] nextInCell;
+    private double[] x;
+    private double[] y;
+    private int size;
+
+    /**
+     * Creates an empty grid, every point added must be inside the bounds.
+     *
+     * @param minX           smallest x
+     * @param minY           smallest y
+     * @param maxX           largest x
+     * @param maxY           largest y
+     * @param expectedPoints number of points the grid is sized for
+     */
+    public PointGrid(double minX, double minY, double maxX, double maxY, int expectedPoints) {
+        this.minX = minX;
+        this.minY = minY;
+        double width = Math.max(maxX - minX, 0.0);
+        double height = Math.max(maxY - minY, 0.0);
+        int cells = Math.max(1, Math.min(MAX_CELLS, expectedPoints / POINTS_PER_CELL));
+        // square cells, fall back to slicing the long side if the box is flat
+        double area = width * height;
+        if (area > 0) {
+            cellSize = Math.sqrt(area / cells);
+        } else {
+            cellSize = Math.max(width, height) / cells;
+        }
+        if (!(cellSize > 0)) {
+            cellSize = 1.0;
+        }
+        columns = (int) Math.min(MAX_CELLS, Math.floor(width / cellSize) + 1);
+        rows = (int) Math.min(MAX_CELLS / columns, Math.floor(height / cellSize) + 1);
+        // the caps might have left the cells too small to cover the box
+        cellSize = Math.max(cellSize, Math.max(width / columns, height / rows) * (1 + 1e-9));
+        cellHead = new int[columns * rows];
+        Arrays.fill(cellHead, -1);
+        int capacity = Math.max(expectedPoints, 16);
+        nextInCell = new int[capacity];
+        x = new double[capacity];
+        y = new double[capacity];
+    }
+
+    /**
+     * Adds a point to the grid.
+     *
+     * @param px x location
+     * @param py y location
+     * @return id of the point
+     */
+    public int add(double px, double py) {
+        if (size == x.length) {
+            x = Arrays.copyOf(x, size * 2);
+            y = Arrays.copyOf(y, size * 2);
+            nextInCell = Arrays.copyOf(nextInCell, size * 2);
+        }
+        int id = size++;
+        x[id] = px;
+        y[id] = py;
+        int cell = row(py) * columns + column(px);
+        nextInCell[id] = cellHead[cell];
+        cellHead[cell] = id;
+        return id;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public double getX(int id) {
+        return x[id];
+    }
+
+    public double getY(int id) {
+        return y[id];
+    }
+
+    /**
+     * Finds the closest point, ties go to the point added first.
+     *
+     * @param px x location
+     * @param py y location
+     * @return id of the closest point, -1 if the grid is empty
+     */
+    public int nearest(double px, double py) {
+        return nearest(px, py, null);
+    }
+
+    /**
+     * Finds the closest point, ties go to the point with the lowest rank.
+     *
+     * @param px   x location
+     * @param py   y location
+     * @param rank ordering used to break ties, indexed by id, null to use the ids
+     * @return id of the closest point, -1 if the grid is empty
+     */
+    public int nearest(double px, double py, long[] rank) {
+        if (size == 0) {
+            return -1;
+        }
+        int column = column(px);
+        int row = row(py);
+        int best = -1;
+        double bestDistance = Double.POSITIVE_INFINITY;
+        int maxRing = Math.max(columns, rows);
+        for (int ring = 0; ring <= maxRing; ring++) {
+            int firstRow = row - ring;
+            int lastRow = row + ring;
+            for (int r = Math.max(0, firstRow); r <= Math.min(rows - 1, lastRow); r++) {
+                // only the outline of the ring, the inside was checked by the smaller rings
+                int step = (r == firstRow || r == lastRow) ? 1 : Math.max(1, 2 * ring);
+                for (int c = column - ring; c <= column + ring; c += step) {
+                    if (c < 0 || c >= columns) {
+                        continue;
+                    }
+                    for (int id = cellHead[r * columns + c]; id != -1; id = nextInCell[id]) {
+                        // compared as the real distance so the ties match a plain scan of the points
+                        double distance = Utils.distanceBetweenPoints(x[id], y[id], px, py);
+                        if (distance < bestDistance || (distance == bestDistance && before(id, best, rank))) {
+                            bestDistance = distance;
+                            best = id;
+                        }
+                    }
+                }
+            }
+            // anything in the next ring is at least this far away
+            double reach = ring * cellSize;
+            if (best != -1 && bestDistance < reach) {
+                break;
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Finds the closest points, sorted from closest to furthest.  Ties go to the point added first.
+     *
+     * @param px     x location
+     * @param py     y location
+     * @param k      number of points to find
+     * @param result ids of the closest points, must hold at least k
+     * @return number of points found, less than k if the grid has fewer points
+     */
+    public int nearest(double px, double py, int k, int[] result) {
+        if (k <= 0 || size == 0) {
+            return 0;
+        }
+        double[] distances = new double[k];
+        int found = 0;
+        int column = column(px);
+        int row = row(py);
+        int maxRing = Math.max(columns, rows);
+        for (int ring = 0; ring <= maxRing; ring++) {
+            int firstRow = row - ring;
+            int lastRow = row + ring;
+            for (int r = Math.max(0, firstRow); r <= Math.min(rows - 1, lastRow); r++) {
+                int step = (r == firstRow || r == lastRow) ? 1 : Math.max(1, 2 * ring);
+                for (int c = column - ring; c <= column + ring; c += step) {
+                    if (c < 0 || c >= columns) {
+                        continue;
+                    }
+                    for (int id = cellHead[r * columns + c]; id != -1; id = nextInCell[id]) {
+                        double distance = Utils.distanceBetweenPoints(x[id], y[id], px, py);
+                        if (found == k && !(distance < distances[k - 1]
+                                || (distance == distances[k - 1] && id < result[k - 1]))) {
+                            continue;
+                        }
+                        // insertion sort in to the short list
+                        int i = found == k ? k - 1 : found++;
+                        while (i > 0 && (distances[i - 1] > distance
+                                || (distances[i - 1] == distance && result[i - 1] > id))) {
+                            distances[i] = distances[i - 1];
+                            result[i] = result[i - 1];
+                            i--;
+                        }
+                        distances[i] = distance;
+                        result[i] = id;
+                    }
+                }
+            }
+            if (found == k && distances[k - 1] < ring * cellSize) {
+                break;
+            }
+        }
+        return found;
+    }
+
+    /**
+     * Takes a point out of the grid, it won't be returned by any search.  Its id isn't reused.
+     *
+     * @param id point to remove
+     */
+    public void remove(int id) {
+        int cell = row(y[id]) * columns + column(x[id]);
+        if (cellHead[cell] == id) {
+            cellHead[cell] = nextInCell[id];
+            return;
+        }
+        for (int other = cellHead[cell]; other != -1; other = nextInCell[other]) {
+            if (nextInCell[other] == id) {
+                nextInCell[other] = nextInCell[id];
+                return;
+            }
+        }
+    }
+
+    private static boolean before(int id, int other, long[] rank) {
+        return rank == null ? id < other : rank[id] < rank[other];
+    }
+
+    private int column(double px) {
+        int column = (int) ((px - minX) / cellSize);
+        return Math.max(0, Math.min(columns - 1, column));
+    }
+
+    private int row(double py) {
+        int row = (int) ((py - minY) / cellSize);
+        return Math.max(0, Math.min(rows - 1, row));
+    }
+}
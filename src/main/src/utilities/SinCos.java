@@ -0,0 +1,68 @@
+package utilities;
+
+/**
+ * Sine and cosine of one angle, worked out together by FastTrig.  Remembers the angle it was last set
+ * to, so setting it to the same heading again (a robot that isn't turning) costs nothing.
+ * <p/>
+ * Created by CyberPuck on 2026-10-17.
+ */
+public class SinCos {
+    // angle the values belong to in degrees, NaN until the first set
+    private double angle = Double.NaN;
+    // approximation setting the values were worked out with
+    private boolean approximate;
+    private double sin;
+    private double cos;
+
+    public SinCos() {
+    }
+
+    public SinCos(double angle) {
+        set(angle);
+    }
+
+    /**
+     * Updates the values for an angle, only recalculating if the angle or the FastTrig mode changed.
+     *
+     * @param angle angle in degrees
+     * @return this
+     */
+    public SinCos set(double angle) {
+        boolean mode = FastTrig.isApproximate();
+        if (angle != this.angle || mode != approximate) {
+            FastTrig.sinCos(angle, this);
+            this.angle = angle;
+            approximate = mode;
+        }
+        return this;
+    }
+
+    /**
+     * Stores values worked out elsewhere, used by FastTrig.
+     */
+    void setValues(double sin, double cos) {
+        this.sin = sin;
+        this.cos = cos;
+    }
+
+    public double getAngle() {
+        return angle;
+    }
+
+    public double getSin() {
+        return sin;
+    }
+
+    public double getCos() {
+        return cos;
+    }
+
+    @Override
+    public String toString() {
+        return "SinCos{" +
+                "angle=" + angle +
+                ", sin=" + sin +
+                ", cos=" + cos +
+                '}';
+    }
+}
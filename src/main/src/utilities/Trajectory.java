@@ -0,0 +1,263 @@
+package utilities;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Immutable polyline path with cumulative arc length.  Vertex 0 is where the robot starts, the rest are
+ * driven to in order.  Coordinates are packed in primitive arrays and the distance along the path to
+ * every vertex is stored, so the total length is O(1) and finding the position at a distance is a
+ * binary search.
+ * <p/>
+ * Created by CyberPuck on 2026-10-17.
+ */
+public class Trajectory {
+    private double[] x;
+    private double[] y;
+    // distance along the path from vertex 0 to each vertex, in feet
+    private double[] distance;
+
+    private Trajectory(double[] x, double[] y, int size) {
+        this.x = Arrays.copyOf(x, size);
+        this.y = Arrays.copyOf(y, size);
+        distance = new double[size];
+        double total = 0.0;
+        for (int i = 1; i < size; i++) {
+            total += Utils.distanceBetweenPoints(this.x[i - 1], this.y[i - 1], this.x[i], this.y[i]);
+            distance[i] = total;
+        }
+    }
+
+    /**
+     * Builds a trajectory from a starting point and the vertices to drive to.
+     *
+     * @param start    starting location
+     * @param vertices vertices in the order they are driven to
+     * @return trajectory with the start as vertex 0
+     */
+    public static Trajectory fromPoints(Point start, List<Point> vertices) {
+        Builder builder = new Builder(vertices.size() + 1);
+        builder.add(start.getX(), start.getY());
+        for (int i = 0; i < vertices.size(); i++) {
+            builder.add(vertices.get(i).getX(), vertices.get(i).getY());
+        }
+        return builder.build();
+    }
+
+    /**
+     * Number of vertices, including the start.
+     *
+     * @return vertex count
+     */
+    public int size() {
+        return x.length;
+    }
+
+    public double getX(int index) {
+        return x[index];
+    }
+
+    public double getY(int index) {
+        return y[index];
+    }
+
+    /**
+     * Distance along the path from the start to a vertex.
+     *
+     * @param index vertex
+     * @return distance in feet
+     */
+    public double getDistance(int index) {
+        return distance[index];
+    }
+
+    /**
+     * Length of the whole path.
+     *
+     * @return length in feet
+     */
+    public double getTotalLength() {
+        return distance.length == 0 ? 0.0 : distance[distance.length - 1];
+    }
+
+    /**
+     * Finds the segment that contains the given distance along the path, segment i runs from vertex i to i + 1.
+     *
+     * @param along distance from the start in feet, clamped to the path
+     * @return segment index, -1 if the path has less than two vertices
+     */
+    public int segmentAt(double along) {
+        int last = x.length - 2;
+        if (last < 0) {
+            return -1;
+        }
+        if (along <= 0) {
+            return 0;
+        }
+        if (along >= distance[last + 1]) {
+            return last;
+        }
+        // find the last vertex at or before the distance
+        int low = 0;
+        int high = last + 1;
+        while (high - low > 1) {
+            int middle = (low + high) >>> 1;
+            if (distance[middle] <= along) {
+                low = middle;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * Finds the point at a distance along the path.
+     *
+     * @param along  distance from the start in feet, clamped to the path
+     * @param result point to store the location in
+     * @return the result point
+     */
+    public Point positionAt(double along, Point result) {
+        int segment = segmentAt(along);
+        if (segment < 0) {
+            result.setX(x.length == 0 ? 0.0 : x[0]);
+            result.setY(y.length == 0 ? 0.0 : y[0]);
+            return result;
+        }
+        double length = distance[segment + 1] - distance[segment];
+        double t = length <= 0 ? 0.0 : (along - distance[segment]) / length;
+        t = Math.max(0.0, Math.min(1.0, t));
+        result.setX(x[segment] + (x[segment + 1] - x[segment]) * t);
+        result.setY(y[segment] + (y[segment + 1] - y[segment]) * t);
+        return result;
+    }
+
+    /**
+     * Finds the segment closest to a point by checking every segment.
+     *
+     * @param px x location
+     * @param py y location
+     * @return closest segment, -1 if the path has less than two vertices
+     */
+    public int nearestSegment(double px, double py) {
+        return nearestSegment(px, py, 0, x.length - 1);
+    }
+
+    /**
+     * Finds the segment closest to a point, only checking segments near a hint.  Useful every frame
+     * when the robot is known to be close to where it was last time.
+     *
+     * @param px     x location
+     * @param py     y location
+     * @param hint   segment to search around
+     * @param window number of segments to check either side of the hint
+     * @return closest segment in the window, -1 if the path has less than two vertices
+     */
+    public int nearestSegment(double px, double py, int hint, int window) {
+        int first = Math.max(0, hint - window);
+        int last = Math.min(x.length - 2, hint + window);
+        int best = -1;
+        double bestDistance = Double.POSITIVE_INFINITY;
+        for (int i = first; i <= last; i++) {
+            double d = distanceToSegment(px, py, i);
+            if (d < bestDistance) {
+                bestDistance = d;
+                best = i;
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Distance along the path of the closest point on a segment.
+     *
+     * @param px      x location
+     * @param py      y location
+     * @param segment segment to project on to
+     * @return distance from the start in feet
+     */
+    public double project(double px, double py, int segment) {
+        double length = distance[segment + 1] - distance[segment];
+        return distance[segment] + projectionFactor(px, py, segment) * length;
+    }
+
+    /**
+     * Shortest distance between a point and a segment.
+     *
+     * @param px      x location
+     * @param py      y location
+     * @param segment segment index
+     * @return distance in feet
+     */
+    public double distanceToSegment(double px, double py, int segment) {
+        double t = projectionFactor(px, py, segment);
+        double cx = x[segment] + (x[segment + 1] - x[segment]) * t;
+        double cy = y[segment] + (y[segment + 1] - y[segment]) * t;
+        return Utils.distanceBetweenPoints(px, py, cx, cy);
+    }
+
+    /**
+     * How far along a segment (0 - 1) the closest point is.
+     */
+    private double projectionFactor(double px, double py, int segment) {
+        double dx = x[segment + 1] - x[segment];
+        double dy = y[segment + 1] - y[segment];
+        double lengthSquared = dx * dx + dy * dy;
+        if (lengthSquared == 0) {
+            return 0.0;
+        }
+        double t = ((px - x[segment]) * dx + (py - y[segment]) * dy) / lengthSquared;
+        return Math.max(0.0, Math.min(1.0, t));
+    }
+
+    @Override
+    public String toString() {
+        return "Trajectory{" +
+                "size=" + x.length +
+                ", totalLength=" + getTotalLength() +
+                '}';
+    }
+
+    /**
+     * Collects vertices before building the trajectory.
+     */
+    public static class Builder {
+        private double[] x;
+        private double[] y;
+        private int size;
+
+        public Builder() {
+            this(16);
+        }
+
+        public Builder(int capacity) {
+            capacity = Math.max(capacity, 2);
+            x = new double[capacity];
+            y = new double[capacity];
+        }
+
+        public Builder add(double px, double py) {
+            if (size == x.length) {
+                x = Arrays.copyOf(x, size * 2);
+                y = Arrays.copyOf(y, size * 2);
+            }
+            x[size] = px;
+            y[size] = py;
+            size++;
+            return this;
+        }
+
+        public Builder add(Point point) {
+            return add(point.getX(), point.getY());
+        }
+
+        public int size() {
+            return size;
+        }
+
+        public Trajectory build() {
+            return new Trajectory(x, y, size);
+        }
+    }
+}
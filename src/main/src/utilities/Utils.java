@@ -3,8 +3,6 @@ package utilities;
 import javafx.scene.canvas.GraphicsContext;
 import javafx.scene.transform.Rotate;
 
-import java.text.DecimalFormat;
-
 /**
  * General functions that are used by multiple classes.
  * <p/>
@@ -50,7 +48,22 @@ public class Utils {
      * @return distance between p1 and p2
      */
     public static double distanceBetweenPoints(Point p1, Point p2) {
-        return Math.sqrt(Math.pow(p1.getX() - p2.getX(), 2) + Math.pow(p1.getY() - p2.getY(), 2));
+        return distanceBetweenPoints(p1.getX(), p1.getY(), p2.getX(), p2.getY());
+    }
+
+    /**
+     * Simple Euclidean distance between two points given as components.
+     *
+     * @param x1 first point x
+     * @param y1 first point y
+     * @param x2 second point x
+     * @param y2 second point y
+     * @return distance between the two points
+     */
+    public static double distanceBetweenPoints(double x1, double y1, double x2, double y2) {
+        double dx = x1 - x2;
+        double dy = y1 - y2;
+        return Math.sqrt(dx * dx + dy * dy);
     }
 
     /**
@@ -61,9 +74,34 @@ public class Utils {
      * @return flag indicating if the goal has been reached
      */
     public static boolean isAtGoal(Point p1, Point goal) {
+        return isAtGoal(p1.getX(), p1.getY(), goal);
+    }
+
+    /**
+     * Given a location as components, see if it is within two inches of the goal.
+     *
+     * @param x    x component of the location in question
+     * @param y    y component of the location in question
+     * @param goal Goal point
+     * @return flag indicating if the goal has been reached
+     */
+    public static boolean isAtGoal(double x, double y, Point goal) {
+        return isAtGoal(x, y, goal.getX(), goal.getY());
+    }
+
+    /**
+     * Given a location and goal as components, see if the location is within two inches of the goal.
+     *
+     * @param x     x component of the location in question
+     * @param y     y component of the location in question
+     * @param goalX x component of the goal
+     * @param goalY y component of the goal
+     * @return flag indicating if the goal has been reached
+     */
+    public static boolean isAtGoal(double x, double y, double goalX, double goalY) {
         double distance = 0.25;
-        if (p1.getX() < goal.getX() + distance && p1.getX() > goal.getX() - distance
-                && p1.getY() < goal.getY() + distance && p1.getY() > goal.getY() - distance) {
+        if (x < goalX + distance && x > goalX - distance
+                && y < goalY + distance && y > goalY - distance) {
             return true;
         }
         return false;
@@ -77,38 +115,50 @@ public class Utils {
      * @return angle between the two based on 0 degrees being the +y-axis
      */
     public static double getAngle(Point p1, Point p2) {
+        return getAngle(p1.getX(), p1.getY(), p2.getX(), p2.getY());
+    }
+
+    /**
+     * Given two points as components, calculate the angle between them based on the GRF.
+     *
+     * @param x1 first point x
+     * @param y1 first point y
+     * @param x2 second point x
+     * @param y2 second point y
+     * @return angle between the two based on 0 degrees being the +y-axis
+     */
+    public static double getAngle(double x1, double y1, double x2, double y2) {
         // add checks for 0, 180, 90, and 270 degrees
-        if (p1.getX() == p2.getX()) {
-            if (p1.getY() <= p2.getY()) {
+        if (x1 == x2) {
+            if (y1 <= y2) {
                 return 0.0;
             } else {
                 return 180.0;
             }
-        } else if (p1.getY() == p2.getY()) {
-            if (p1.getX() > p2.getX()) {
+        } else if (y1 == y2) {
+            if (x1 > x2) {
                 return 90.0;
             } else {
                 return -90.0;
             }
         }
         // check which coordinate system we are going to be in, tangent operates in 0 - 180 degrees
-        if (p1.getY() < p2.getY()) {
+        if (y1 < y2) {
             // moving in the positive Y-axis
-            return Math.toDegrees(Math.atan((p1.getX() - p2.getX()) / (p2.getY() - p1.getY())));
+            return FastTrig.atan((x1 - x2) / (y2 - y1));
         } else {
-            return Math.toDegrees(Math.atan((p1.getX() - p2.getX()) / (p2.getY() - p1.getY()))) - 180;
+            return FastTrig.atan((x1 - x2) / (y2 - y1)) - 180;
         }
     }
 
     /**
-     * Simply format a double to three decimals places, longer doubles are introducing error.
+     * Simply trim a double to three decimals places, longer doubles are introducing error.
      *
      * @param value Original double value
      * @return double trimmed to the thousandths
      */
     public static double roundDouble(double value) {
-        DecimalFormat df = new DecimalFormat("#.###");
-        return Double.valueOf(df.format(value));
+        return FixedPoint.round(value);
     }
 
     /**
@@ -157,8 +207,8 @@ public class Utils {
      * @return new point
      */
     public static Point calculatePoint(Point startingPoint, double distance, double angle) {
-        double x = startingPoint.getX() + Math.sin(Math.toRadians(angle)) * distance * -1;
-        double y = startingPoint.getY() + Math.cos(Math.toRadians(angle)) * distance;
+        double x = startingPoint.getX() + FastTrig.sin(angle) * distance * -1;
+        double y = startingPoint.getY() + FastTrig.cos(angle) * distance;
         return new Point(x, y);
     }
 }